@@ -185,6 +185,23 @@ public interface Hologram {
 	 * @return the timestamp of when the hologram was created, in milliseconds
 	 */
 	public long getCreationTimestamp();
+	
+	/**
+	 * Returns the distance from which the hologram is visible, in blocks.
+	 * This is 64 by default.
+	 * 
+	 * @return the view distance of this hologram
+	 */
+	public int getViewDistance();
+	
+	/**
+	 * Sets the distance from which the hologram is visible, in blocks.
+	 * Small holograms can use a lower value, to be sent to less players.
+	 * Holograms made of real entities are also limited by the tracking range of the server.
+	 * 
+	 * @param viewDistance the view distance, must be greater than 0
+	 */
+	public void setViewDistance(int viewDistance);
 
 	/**
 	 * Checks if the hologram will track and replace placeholders.
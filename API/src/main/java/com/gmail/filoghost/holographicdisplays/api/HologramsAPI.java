@@ -18,10 +18,13 @@ import java.util.Collection;
 
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import com.gmail.filoghost.holographicdisplays.api.internal.BackendAPI;
+import com.gmail.filoghost.holographicdisplays.api.placeholder.AsyncPlaceholderReplacer;
 import com.gmail.filoghost.holographicdisplays.api.placeholder.PlaceholderReplacer;
+import com.gmail.filoghost.holographicdisplays.api.placeholder.RelativePlaceholderReplacer;
 
 /**
  * This the main class of the <b>Holographic Displays API</b>.
@@ -74,6 +77,23 @@ public class HologramsAPI {
 	}
 	
 	
+	/**
+	 * Registers a new placeholder whose replacement is computed asynchronously, outside of the main thread.
+	 * Only one update at a time is running for each placeholder: if an update is still running when the next one is due, that one is skipped.
+	 * Until the first update completes, the placeholder is replaced with an empty string.
+	 * 
+	 * @param plugin the owner plugin of the placeholder
+	 * @param textPlaceholder the text that the placeholder will be associated to (e.g.: "{topPlayer}")
+	 * @param refreshRate the refresh rate of the placeholder, in seconds. Keep in mind that the minimum is 0.1 seconds, and that will be rounded to tenths of seconds
+	 * @param timeout the maximum time in seconds that an update can take, after that it is interrupted and its result is discarded
+	 * @param replacer the implementation that will return the text to replace the placeholder, where the update() method is called asynchronously every <b>refreshRate</b> seconds
+	 * @return true if the registration was successfull, false if it was already registered
+	 */
+	public static boolean registerAsyncPlaceholder(Plugin plugin, String textPlaceholder, double refreshRate, double timeout, AsyncPlaceholderReplacer replacer) {
+		return BackendAPI.getImplementation().registerAsyncPlaceholder(plugin, textPlaceholder, refreshRate, timeout, replacer);
+	}
+	
+	
 	/**
 	 * Finds all the placeholders registered by a given plugin.
 	 * 
@@ -108,6 +128,57 @@ public class HologramsAPI {
 	}
 	
 	
+	/**
+	 * Registers a new relative placeholder, whose replacement is different for each player who sees it.
+	 * The replacement is cached for each player and updated at most every <b>refreshRate</b> seconds, when sent to that player.
+	 * Since packets can be sent asynchronously, the replacer must be thread safe.
+	 * Relative placeholders are only replaced in holograms that allow placeholders.
+	 * 
+	 * @param plugin the owner plugin of the relative placeholder
+	 * @param textPlaceholder the text that the placeholder will be associated to (e.g.: "{kills}")
+	 * @param refreshRate the refresh rate of the replacement for each player, in seconds. Keep in mind that the minimum is 0.1 seconds, and that will be rounded to tenths of seconds
+	 * @param replacer the implementation that will return the text to replace the placeholder for a player
+	 * @return true if the registration was successfull, false if it was already registered
+	 */
+	public static boolean registerRelativePlaceholder(Plugin plugin, String textPlaceholder, double refreshRate, RelativePlaceholderReplacer replacer) {
+		return BackendAPI.getImplementation().registerRelativePlaceholder(plugin, textPlaceholder, refreshRate, replacer);
+	}
+	
+	
+	/**
+	 * Unregister a relative placeholder created by a plugin.
+	 * 
+	 * @param plugin the plugin that owns the relative placeholder
+	 * @param textPlaceholder the relative placeholder to remove
+	 * @return true if found and removed, false otherwise
+	 */
+	public static boolean unregisterRelativePlaceholder(Plugin plugin, String textPlaceholder) {
+		return BackendAPI.getImplementation().unregisterRelativePlaceholder(plugin, textPlaceholder);
+	}
+	
+	
+	/**
+	 * Creates a transaction to change the visibility of many holograms at once.
+	 * The changes are applied only when the transaction is committed.
+	 * 
+	 * @return the new transaction
+	 */
+	public static VisibilityTransaction createVisibilityTransaction() {
+		return BackendAPI.getImplementation().createVisibilityTransaction();
+	}
+	
+	
+	/**
+	 * Checks the visibility rules of all the holograms again for a player, for example after its permissions have changed.
+	 * 
+	 * @param player the involved player
+	 * @see VisibilityManager#setVisibilityRule(java.util.function.Predicate)
+	 */
+	public static void invalidateVisibilityRules(Player player) {
+		BackendAPI.getImplementation().invalidateVisibilityRules(player);
+	}
+	
+	
 	/**
 	 * Checks if an entity is part of a hologram.
 	 * 
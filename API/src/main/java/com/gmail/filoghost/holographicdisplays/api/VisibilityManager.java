@@ -14,6 +14,9 @@
  */
 package com.gmail.filoghost.holographicdisplays.api;
 
+import java.util.Collection;
+import java.util.function.Predicate;
+
 import org.bukkit.entity.Player;
 
 /**
@@ -41,20 +44,36 @@ public interface VisibilityManager {
 	
 	/**
 	 * Shows the hologram to a player, overriding the value of {@link #isVisibleByDefault()}.
-	 * This is persistent if the players goes offline.
+	 * This is reset when the player goes offline.
 	 * 
 	 * @param player the involved player
 	 */
 	public void showTo(Player player);
 	
+	/**
+	 * Shows the hologram to some players, like {@link #showTo(Player)}.
+	 * This is faster than calling it for each player.
+	 * 
+	 * @param players the involved players
+	 */
+	public void showTo(Collection<? extends Player> players);
+	
 	/**
 	 * Hides the hologram to a player, overriding the value of {@link #isVisibleByDefault()}.
-	 * This is persistent if the players goes offline.
+	 * This is reset when the player goes offline.
 	 * 
 	 * @param player the involved player
 	 */
 	public void hideTo(Player player);
 	
+	/**
+	 * Hides the hologram to some players, like {@link #hideTo(Player)}.
+	 * This is faster than calling it for each player.
+	 * 
+	 * @param players the involved players
+	 */
+	public void hideTo(Collection<? extends Player> players);
+	
 	/**
 	 * Checks if a hologram is visible to a player.
 	 * 
@@ -77,4 +96,31 @@ public interface VisibilityManager {
 	 */
 	public void resetVisibilityAll();
 	
+	/**
+	 * Returns the rule that decides the visibility of the hologram, if set.
+	 * 
+	 * @return the visibility rule, or null if not set
+	 */
+	public Predicate<Player> getVisibilityRule();
+	
+	/**
+	 * Sets a rule that decides if the hologram is visible to each player, replacing the value of {@link #isVisibleByDefault()}.
+	 * The visibility set with {@link #showTo(Player)} and {@link #hideTo(Player)} still has priority.
+	 * The result is cached for each player until the player quits or changes world, or until {@link #invalidateVisibilityRule(Player)} is called.
+	 * The rule is only checked on the main thread, when the hologram is shown to a player: the packets sent asynchronously
+	 * use the last result until then.
+	 * 
+	 * @param visibilityRule the new rule, or null to remove it
+	 */
+	public void setVisibilityRule(Predicate<Player> visibilityRule);
+	
+	/**
+	 * Checks the visibility rule again for a player, for example after its permissions have changed.
+	 * The rule is checked again from the next tick, if the player is near the hologram, or later when the player gets near it.
+	 * To do it for all the holograms, see {@link HologramsAPI#invalidateVisibilityRules(Player)}.
+	 * 
+	 * @param player the involved player
+	 */
+	public void invalidateVisibilityRule(Player player);
+	
 }
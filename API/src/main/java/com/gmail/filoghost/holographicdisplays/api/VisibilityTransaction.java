@@ -0,0 +1,70 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.api;
+
+import java.util.Collection;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Collects the visibility changes of many holograms, then applies them together when committed.
+ * Only the last change of each hologram for each player is applied, for example showing and then hiding
+ * a hologram to a player in the same transaction sends nothing.
+ * A transaction is not thread safe, and it can be committed only once.
+ */
+public interface VisibilityTransaction {
+	
+	/**
+	 * Shows the hologram to a player when the transaction is committed.
+	 * 
+	 * @param hologram the involved hologram
+	 * @param player the involved player
+	 * @see VisibilityManager#showTo(Player)
+	 */
+	public void showTo(Hologram hologram, Player player);
+	
+	/**
+	 * Shows the hologram to some players when the transaction is committed.
+	 * 
+	 * @param hologram the involved hologram
+	 * @param players the involved players
+	 * @see VisibilityManager#showTo(Collection)
+	 */
+	public void showTo(Hologram hologram, Collection<? extends Player> players);
+	
+	/**
+	 * Hides the hologram to a player when the transaction is committed.
+	 * 
+	 * @param hologram the involved hologram
+	 * @param player the involved player
+	 * @see VisibilityManager#hideTo(Player)
+	 */
+	public void hideTo(Hologram hologram, Player player);
+	
+	/**
+	 * Hides the hologram to some players when the transaction is committed.
+	 * 
+	 * @param hologram the involved hologram
+	 * @param players the involved players
+	 * @see VisibilityManager#hideTo(Collection)
+	 */
+	public void hideTo(Hologram hologram, Collection<? extends Player> players);
+	
+	/**
+	 * Applies all the changes. The packets of all the holograms are sent together to each player.
+	 */
+	public void commit();
+	
+}
@@ -18,10 +18,14 @@ import java.util.Collection;
 
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import com.gmail.filoghost.holographicdisplays.api.Hologram;
+import com.gmail.filoghost.holographicdisplays.api.VisibilityTransaction;
+import com.gmail.filoghost.holographicdisplays.api.placeholder.AsyncPlaceholderReplacer;
 import com.gmail.filoghost.holographicdisplays.api.placeholder.PlaceholderReplacer;
+import com.gmail.filoghost.holographicdisplays.api.placeholder.RelativePlaceholderReplacer;
 
 public abstract class BackendAPI {
 	
@@ -45,12 +49,22 @@ public abstract class BackendAPI {
 
 	public abstract boolean registerPlaceholder(Plugin plugin, String textPlaceholder, double refreshRate, PlaceholderReplacer replacer);
 
+	public abstract boolean registerAsyncPlaceholder(Plugin plugin, String textPlaceholder, double refreshRate, double timeout, AsyncPlaceholderReplacer replacer);
+
 	public abstract Collection<String> getRegisteredPlaceholders(Plugin plugin);
 
 	public abstract boolean unregisterPlaceholder(Plugin plugin, String textPlaceholder);
 
 	public abstract void unregisterPlaceholders(Plugin plugin);
 
+	public abstract boolean registerRelativePlaceholder(Plugin plugin, String textPlaceholder, double refreshRate, RelativePlaceholderReplacer replacer);
+
+	public abstract boolean unregisterRelativePlaceholder(Plugin plugin, String textPlaceholder);
+
+	public abstract VisibilityTransaction createVisibilityTransaction();
+
+	public abstract void invalidateVisibilityRules(Player player);
+
 	public abstract boolean isHologramEntity(Entity bukkitEntity);	
 	
 
@@ -0,0 +1,29 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.api.placeholder;
+
+/**
+ * A replacer for placeholders that are slow to compute, for example because they query a database.
+ * The update() method is called from a separate thread, so it must not use the parts of the Bukkit API that are not thread-safe.
+ */
+public interface AsyncPlaceholderReplacer {
+
+	/**
+	 * Called asynchronously to update a placeholder's replacement.
+	 * @return the replacement
+	 */
+	public String update();
+	
+}
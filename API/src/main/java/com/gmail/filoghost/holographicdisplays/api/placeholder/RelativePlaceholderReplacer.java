@@ -0,0 +1,29 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.api.placeholder;
+
+import org.bukkit.entity.Player;
+
+public interface RelativePlaceholderReplacer {
+
+	/**
+	 * Called to update a relative placeholder's replacement for a player.
+	 * It can be called from the threads sending the packets, not only from the main thread.
+	 * @param player the player who will see the replacement
+	 * @return the replacement
+	 */
+	public String update(Player player);
+	
+}
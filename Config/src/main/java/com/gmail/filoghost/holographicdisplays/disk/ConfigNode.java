@@ -35,6 +35,13 @@ public enum ConfigNode {
 	TIME_FORMAT("time.format", "H:mm"),
 	TIME_ZONE("time.zone", "GMT+1"),
 	USE_PLACEHOLDERAPI("use-placeholderapi", false),
+	PLACEHOLDERAPI_REFRESH_SECONDS("placeholderapi.refresh-seconds", 1.0),
+	PLACEHOLDERAPI_REFRESH_OVERRIDES("placeholderapi.refresh-overrides", Arrays.asList("server_tps: 5", "server_online: 1")),
+	PLACEHOLDERAPI_RELATIVE_EXPANSIONS("placeholderapi.relative.expansions", Arrays.asList("player")),
+	PLACEHOLDERAPI_RELATIVE_REFRESH_SECONDS("placeholderapi.relative.refresh-seconds", 1.0),
+	PLACEHOLDERAPI_RELATIVE_CACHE_SIZE("placeholderapi.relative.cache-size", 5000),
+	PACKET_LISTENER("packet-listener", "ProtocolLib"),
+	VIRTUAL_HOLOGRAMS("virtual-holograms", false),
 	DEBUG("debug", false);
 	
 	private final String path;
@@ -19,8 +19,10 @@ import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.logging.Level;
 
@@ -57,6 +59,14 @@ public class Configuration {
 	public static Map<String, ServerAddress> pingerServers;
 	
 	public static boolean usePlaceholderAPI;
+	public static double placeholderAPIRefreshSeconds;
+	public static Map<String, Double> placeholderAPIRefreshOverrides;
+	public static Set<String> placeholderAPIRelativeExpansions;
+	public static double placeholderAPIRelativeRefreshSeconds;
+	public static int placeholderAPIRelativeCacheSize;
+	
+	public static boolean nettyPacketListener;
+	public static boolean virtualHolograms;
 
 	
 	public static void load(Plugin plugin) {
@@ -145,6 +155,14 @@ public class Configuration {
 		pingerStatusOffline = StringConverter.toReadableFormat(config.getString(ConfigNode.BUNGEE_PINGER_OFFLINE_FORMAT.getPath()));
 		
 		usePlaceholderAPI = config.getBoolean(ConfigNode.USE_PLACEHOLDERAPI.getPath());
+		placeholderAPIRefreshSeconds = config.getDouble(ConfigNode.PLACEHOLDERAPI_REFRESH_SECONDS.getPath());
+		placeholderAPIRelativeRefreshSeconds = config.getDouble(ConfigNode.PLACEHOLDERAPI_RELATIVE_REFRESH_SECONDS.getPath());
+		placeholderAPIRelativeCacheSize = config.getInt(ConfigNode.PLACEHOLDERAPI_RELATIVE_CACHE_SIZE.getPath());
+		
+		placeholderAPIRelativeExpansions = new HashSet<>();
+		for (String expansion : config.getStringList(ConfigNode.PLACEHOLDERAPI_RELATIVE_EXPANSIONS.getPath())) {
+			placeholderAPIRelativeExpansions.add(expansion.trim().toLowerCase());
+		}
 		
 		if (pingerTimeout <= 0) {
 			pingerTimeout = 100;
@@ -186,6 +204,30 @@ public class Configuration {
 			}
 		}
 		
+		placeholderAPIRefreshOverrides = new HashMap<>();
+		
+		for (String singleOverride : config.getStringList(ConfigNode.PLACEHOLDERAPI_REFRESH_OVERRIDES.getPath())) {
+			String[] identifierAndSeconds = singleOverride.split(":", 2);
+			if (identifierAndSeconds.length < 2) {
+				ConsoleLogger.log(Level.WARNING, "The PlaceholderAPI refresh interval \"" + singleOverride + "\" is not valid. There should be an identifier and the seconds, separated by a colon.");
+				continue;
+			}
+			
+			try {
+				placeholderAPIRefreshOverrides.put(identifierAndSeconds[0].trim().toLowerCase(), Double.parseDouble(identifierAndSeconds[1].trim()));
+			} catch (NumberFormatException e) {
+				ConsoleLogger.log(Level.WARNING, "Invalid number of seconds in the PlaceholderAPI refresh interval \"" + singleOverride + "\".");
+			}
+		}
+		
+		String packetListener = config.getString(ConfigNode.PACKET_LISTENER.getPath());
+		nettyPacketListener = "netty".equalsIgnoreCase(packetListener);
+		if (!nettyPacketListener && !"ProtocolLib".equalsIgnoreCase(packetListener)) {
+			ConsoleLogger.log(Level.WARNING, "The packet listener \"" + packetListener + "\" is not valid, it should be ProtocolLib or Netty. ProtocolLib will be used.");
+		}
+		
+		virtualHolograms = config.getBoolean(ConfigNode.VIRTUAL_HOLOGRAMS.getPath());
+		
 		ConsoleLogger.setDebugEnabled(config.getBoolean(ConfigNode.DEBUG.getPath()));
 		
 		String tempColor = config.getString(ConfigNode.TRANSPARENCY_COLOR.getPath()).replace('&', ChatColor.COLOR_CHAR);
@@ -209,6 +251,20 @@ public class Configuration {
 			ConsoleLogger.log(Level.WARNING, "Time format not valid in the configuration, using the default.");
 		}
 		
+		if (placeholderAPIRefreshSeconds < 0.1) {
+			ConsoleLogger.log(Level.WARNING, "The minimum refresh interval for PlaceholderAPI placeholders is 0.1 seconds. It has been automatically set.");
+			placeholderAPIRefreshSeconds = 0.1;
+		}
+		
+		if (placeholderAPIRelativeRefreshSeconds < 0) {
+			placeholderAPIRelativeRefreshSeconds = 0;
+		}
+		
+		if (placeholderAPIRelativeCacheSize < 100) {
+			ConsoleLogger.log(Level.WARNING, "The minimum size of the cache for relative PlaceholderAPI placeholders is 100. It has been automatically set.");
+			placeholderAPIRelativeCacheSize = 100;
+		}
+		
 		if (bungeeRefreshSeconds < 1) {
 			ConsoleLogger.log(Level.WARNING, "The minimum interval for pinging BungeeCord's servers is 1 second. It has been automatically set.");
 			bungeeRefreshSeconds = 1;
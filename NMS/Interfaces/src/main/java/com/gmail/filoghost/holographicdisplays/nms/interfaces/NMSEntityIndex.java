@@ -0,0 +1,214 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.nms.interfaces;
+
+import java.util.concurrent.locks.StampedLock;
+
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSEntityBase;
+
+/**
+ * The entities of the holograms by entity ID, to recognize them without a lookup in the world.
+ * The entities must be added before being added to the world, since the spawn packets could be sent immediately.
+ * It's modified from the main thread and read by the packet listener from any thread, without blocking in most cases.
+ */
+public class NMSEntityIndex {
+	
+	private static final int FILTER_BITS = 1 << 16;
+	
+	// Open addressing with linear probing, 0 is never a valid entity ID and marks the free slots.
+	private static int[] keys = new int[256];
+	private static NMSEntityBase[] values = new NMSEntityBase[256];
+	private static int size;
+	
+	// One bit for each possible value of the lowest bits of the IDs, most entities are rejected without probing the table.
+	// The bits are not cleared on removal, the filter is rebuilt when too many of them could be stale.
+	private static final long[] filter = new long[FILTER_BITS / 64];
+	private static int removedSinceFilterRebuild;
+	
+	private static final StampedLock lock = new StampedLock();
+	
+	public static void add(NMSEntityBase entity) {
+		int entityID = entity.getIdNMS();
+		if (entityID <= 0) {
+			return;
+		}
+		
+		long stamp = lock.writeLock();
+		try {
+			addLocked(entityID, entity);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	private static void addLocked(int entityID, NMSEntityBase entity) {
+		if ((size + 1) * 2 > keys.length) {
+			resize(keys.length * 2);
+		}
+		
+		int slot = findSlot(keys, entityID);
+		if (keys[slot] == 0) {
+			keys[slot] = entityID;
+			size++;
+		}
+		values[slot] = entity;
+		
+		int filterIndex = entityID & (FILTER_BITS - 1);
+		filter[filterIndex >>> 6] |= 1L << filterIndex;
+	}
+	
+	public static void remove(NMSEntityBase entity) {
+		if (entity == null) {
+			return;
+		}
+		
+		int entityID = entity.getIdNMS();
+		if (entityID <= 0) {
+			return;
+		}
+		
+		long stamp = lock.writeLock();
+		try {
+			removeLocked(entityID, entity);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	private static void removeLocked(int entityID, NMSEntityBase entity) {
+		int slot = findSlot(keys, entityID);
+		if (keys[slot] == 0 || values[slot] != entity) {
+			return;
+		}
+		
+		keys[slot] = 0;
+		values[slot] = null;
+		size--;
+		
+		// Move back the following entries of the same cluster, so that the probing doesn't stop at the free slot.
+		int mask = keys.length - 1;
+		int free = slot;
+		for (int i = (slot + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+			int home = hash(keys[i]) & mask;
+			
+			// The entry can fill the free slot only if its home slot isn't between the free slot and its position.
+			if (((i - home) & mask) >= ((i - free) & mask)) {
+				keys[free] = keys[i];
+				values[free] = values[i];
+				keys[i] = 0;
+				values[i] = null;
+				free = i;
+			}
+		}
+		
+		if (++removedSinceFilterRebuild > Math.max(size, 1024)) {
+			rebuildFilter();
+		}
+	}
+	
+	/**
+	 * Returns the entity of a hologram with the given ID, or null if it's not related to holograms.
+	 */
+	public static NMSEntityBase get(int entityID) {
+		if (entityID <= 0) {
+			return null;
+		}
+		
+		// Optimistic read, repeated with the read lock only if the index was modified meanwhile.
+		long stamp = lock.tryOptimisticRead();
+		NMSEntityBase entity = getUnlocked(entityID);
+		
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				entity = getUnlocked(entityID);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		
+		return entity;
+	}
+	
+	private static NMSEntityBase getUnlocked(int entityID) {
+		int filterIndex = entityID & (FILTER_BITS - 1);
+		if ((filter[filterIndex >>> 6] & (1L << filterIndex)) == 0) {
+			return null;
+		}
+		
+		// The arrays are read together, they could be replaced by a resize.
+		int[] keys = NMSEntityIndex.keys;
+		NMSEntityBase[] values = NMSEntityIndex.values;
+		if (keys.length != values.length) {
+			return null;
+		}
+		
+		int slot = findSlot(keys, entityID);
+		return keys[slot] != 0 ? values[slot] : null;
+	}
+	
+	public static int size() {
+		return size;
+	}
+	
+	private static int findSlot(int[] keys, int entityID) {
+		int mask = keys.length - 1;
+		int slot = hash(entityID) & mask;
+		
+		while (keys[slot] != 0 && keys[slot] != entityID) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+	
+	private static int hash(int entityID) {
+		// The IDs are often consecutive, spread them to avoid long clusters.
+		return entityID * 0x9E3779B9 >>> 7;
+	}
+	
+	private static void resize(int capacity) {
+		int[] oldKeys = keys;
+		NMSEntityBase[] oldValues = values;
+		int[] newKeys = new int[capacity];
+		NMSEntityBase[] newValues = new NMSEntityBase[capacity];
+		
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != 0) {
+				int slot = findSlot(newKeys, oldKeys[i]);
+				newKeys[slot] = oldKeys[i];
+				newValues[slot] = oldValues[i];
+			}
+		}
+		
+		keys = newKeys;
+		values = newValues;
+	}
+	
+	private static void rebuildFilter() {
+		for (int i = 0; i < filter.length; i++) {
+			filter[i] = 0;
+		}
+		
+		for (int entityID : keys) {
+			if (entityID != 0) {
+				int filterIndex = entityID & (FILTER_BITS - 1);
+				filter[filterIndex >>> 6] |= 1L << filterIndex;
+			}
+		}
+		
+		removedSinceFilterRebuild = 0;
+	}
+	
+}
@@ -14,7 +14,10 @@
  */
 package com.gmail.filoghost.holographicdisplays.nms.interfaces;
 
+import java.util.List;
+
 import org.bukkit.World;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import com.gmail.filoghost.holographicdisplays.api.line.HologramLine;
@@ -29,11 +32,12 @@ public interface NMSManager {
 	// A method to register all the custom entities of the plugin, it may fail.
 	public void setup() throws Exception;
 	
-	public NMSArmorStand spawnNMSArmorStand(org.bukkit.World world, double x, double y, double z, HologramLine parentPiece, boolean broadcastLocationPacket);
+	// Virtual entities are never added to the world, they only hold the data of the packets sent by the plugin.
+	public NMSArmorStand spawnNMSArmorStand(org.bukkit.World world, double x, double y, double z, HologramLine parentPiece, boolean virtual);
 	
-	public NMSItem spawnNMSItem(org.bukkit.World bukkitWorld, double x, double y, double z, ItemLine parentPiece, ItemStack stack, ItemPickupManager itemPickupManager);
+	public NMSItem spawnNMSItem(org.bukkit.World bukkitWorld, double x, double y, double z, ItemLine parentPiece, ItemStack stack, ItemPickupManager itemPickupManager, boolean virtual);
 	
-	public NMSSlime spawnNMSSlime(org.bukkit.World bukkitWorld, double x, double y, double z, HologramLine parentPiece);
+	public NMSSlime spawnNMSSlime(org.bukkit.World bukkitWorld, double x, double y, double z, HologramLine parentPiece, boolean virtual);
 	
 	public boolean isNMSEntityBase(org.bukkit.entity.Entity bukkitEntity);
 
@@ -41,8 +45,19 @@ public interface NMSManager {
 
 	public NMSEntityBase getNMSEntityBaseFromID(World bukkitWorld, int entityID);
 
+	// Converts a custom name to the version-dependent NMS object, so that more entities can share it.
+	public Object createCustomNameObject(String customName);
+
 	public Object replaceCustomNameText(Object customNameObject, String target, String replacement);
 
 	public int getCurrentTick();
+	
+	// Adds the interceptor to the connection of the player, it is removed automatically when the player disconnects.
+	public void injectPacketInterceptor(Player player, PacketInterceptor packetInterceptor);
+	
+	public void uninjectPacketInterceptor(Player player);
+	
+	// Writes the packets to the connection of the player and flushes it only once, after the last one.
+	public void sendPackets(Player player, List<Object> nmsPackets);
 
 }
@@ -0,0 +1,33 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.nms.interfaces;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Receives the packets written to the connection of a player, before they are encoded.
+ * It is called from the netty threads.
+ */
+public interface PacketInterceptor {
+	
+	// The name of the handler in the pipeline of the connection.
+	public static final String HANDLER_NAME = "holographic_displays";
+	
+	/**
+	 * Returns the packet to write, which can be a different one, or null if the packet must not be sent.
+	 */
+	public Object onPacketSending(Player player, Object packet);
+
+}
@@ -16,7 +16,7 @@ package com.gmail.filoghost.holographicdisplays.nms.interfaces.entity;
 
 public interface NMSArmorStand extends NMSNameable {
 	
-	// Sets the location through NMS and optionally broadcast an additional teleport packet containing the location.
-	public void setLocationNMS(double x, double y, double z, boolean broadcastLocationPacket);
+	// Sets the location through NMS, the entity tracker will send it with a teleport packet.
+	public void setLocationNMS(double x, double y, double z);
 
 }
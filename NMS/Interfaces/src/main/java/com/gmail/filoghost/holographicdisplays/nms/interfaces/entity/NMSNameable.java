@@ -19,6 +19,9 @@ public interface NMSNameable extends NMSEntityBase {
 	// Sets a custom name as a String.
 	public void setCustomNameNMS(String name);
 	
+	// Sets a custom name as a String, with the NMS object already created from it by NMSManager.createCustomNameObject().
+	public void setCustomNameNMS(String name, Object customNameObject);
+	
 	// Returns the custom name as a String.
 	public String getCustomNameStringNMS();
 
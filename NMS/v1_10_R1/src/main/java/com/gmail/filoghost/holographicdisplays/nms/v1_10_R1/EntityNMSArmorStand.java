@@ -23,21 +23,26 @@ import net.minecraft.server.v1_10_R1.AxisAlignedBB;
 import net.minecraft.server.v1_10_R1.DamageSource;
 import net.minecraft.server.v1_10_R1.EntityArmorStand;
 import net.minecraft.server.v1_10_R1.EntityHuman;
-import net.minecraft.server.v1_10_R1.EntityPlayer;
 import net.minecraft.server.v1_10_R1.EnumHand;
 import net.minecraft.server.v1_10_R1.EnumInteractionResult;
 import net.minecraft.server.v1_10_R1.EnumItemSlot;
 import net.minecraft.server.v1_10_R1.ItemStack;
 import net.minecraft.server.v1_10_R1.NBTTagCompound;
-import net.minecraft.server.v1_10_R1.PacketPlayOutEntityTeleport;
 import net.minecraft.server.v1_10_R1.SoundEffect;
 import net.minecraft.server.v1_10_R1.Vec3D;
 import net.minecraft.server.v1_10_R1.World;
 
 public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorStand {
 
+	// The update interval of the armor stands in EntityTrackerEntry.
+	private static final int TRACKER_UPDATE_INTERVAL = 3;
+
 	private HologramLine parentPiece;
 	private String customName;
+	private boolean locationChanged;
+	// The onGround value read by EntityTrackerEntry, assumed once it had the time to read a new one.
+	private boolean trackerOnGround;
+	private int onGroundChangeTicks;
 	
 	public EntityNMSArmorStand(World world, HologramLine parentPiece) {
 		super(world);
@@ -52,15 +57,31 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
 		forceSetBoundingBox(new NullBoundingBox());
 		
 		this.onGround = true; // Workaround to force EntityTrackerEntry to send a teleport packet.
+		this.trackerOnGround = true;
 	}
 	
 	@Override
 	public void m() {
 		// Disable normal ticking for this entity.
 		
-		// Workaround to force EntityTrackerEntry to send a teleport packet immediately after spawning this entity.
-		if (this.onGround) {
-			this.onGround = false;
+		// Workaround to force EntityTrackerEntry to send a teleport packet instead of a relative move, after spawning or moving this entity.
+		updateOnGround();
+	}
+	
+	private void updateOnGround() {
+		// The tracker reads onGround only every few ticks: a new value is kept until it's read, and the value
+		// is changed again only then, if the entity has moved meanwhile.
+		if (this.onGround != this.trackerOnGround) {
+			if (++this.onGroundChangeTicks < TRACKER_UPDATE_INTERVAL) {
+				return;
+			}
+			this.trackerOnGround = this.onGround;
+		}
+		
+		if (this.locationChanged) {
+			this.onGround = !this.trackerOnGround;
+			this.onGroundChangeTicks = 0;
+			this.locationChanged = false;
 		}
 	}
 	
@@ -68,10 +89,8 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
 	public void inactiveTick() {	
 		// Disable normal ticking for this entity.
 		
-		// Workaround to force EntityTrackerEntry to send a teleport packet immediately after spawning this entity.
-		if (this.onGround) {
-			this.onGround = false;
-		}
+		// Workaround to force EntityTrackerEntry to send a teleport packet instead of a relative move, after spawning or moving this entity.
+		updateOnGround();
 	}
 	
 	@Override
@@ -170,6 +189,13 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
 		super.setCustomNameVisible(customName != null && !customName.isEmpty());
 	}
 	
+	@Override
+	public void setCustomNameNMS(String name, Object customNameObject) {
+		this.customName = Utils.limitLength(name, 300);
+		super.setCustomName((String) customNameObject);
+		super.setCustomNameVisible(customName != null && !customName.isEmpty());
+	}
+	
 	@Override
 	public String getCustomNameStringNMS() {
 		return this.customName;
@@ -199,26 +225,9 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
 	}
 	
 	@Override
-	public void setLocationNMS(double x, double y, double z, boolean broadcastLocationPacket) {
+	public void setLocationNMS(double x, double y, double z) {
 		super.setPosition(x, y, z);
-		if (broadcastLocationPacket) {
-			broadcastLocationPacketNMS();
-		}
-	}
-	
-	private void broadcastLocationPacketNMS() {
-		PacketPlayOutEntityTeleport teleportPacket = new PacketPlayOutEntityTeleport(this);
-		
-		for (Object obj : super.world.players) {
-			if (obj instanceof EntityPlayer) {
-				EntityPlayer nmsPlayer = (EntityPlayer) obj;
-
-				double distanceSquared = Utils.square(nmsPlayer.locX - super.locX) + Utils.square(nmsPlayer.locZ - super.locZ);
-				if (distanceSquared < 8192 && nmsPlayer.playerConnection != null) {
-					nmsPlayer.playerConnection.sendPacket(teleportPacket);
-				}
-			}
-		}
+		this.locationChanged = true;
 	}
 
 	@Override
@@ -21,6 +21,9 @@ import net.minecraft.server.v1_13_R1.MinecraftServer;
 import org.bukkit.Bukkit;
 import org.bukkit.craftbukkit.v1_13_R1.CraftWorld;
 import org.bukkit.craftbukkit.v1_13_R1.entity.CraftEntity;
+import org.bukkit.craftbukkit.v1_13_R1.entity.CraftPlayer;
+import org.bukkit.craftbukkit.v1_13_R1.util.CraftChatMessage;
+import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 
 import com.gmail.filoghost.holographicdisplays.api.line.HologramLine;
@@ -28,15 +31,21 @@ import com.gmail.filoghost.holographicdisplays.api.line.ItemLine;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.ChatComponentAdapter;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.ItemPickupManager;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.CustomNameHelper;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSEntityIndex;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSManager;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.PacketInterceptor;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSArmorStand;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSEntityBase;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSItem;
 import com.gmail.filoghost.holographicdisplays.util.ConsoleLogger;
+import com.gmail.filoghost.holographicdisplays.util.Utils;
 import com.gmail.filoghost.holographicdisplays.util.Validator;
 import com.gmail.filoghost.holographicdisplays.util.VersionUtils;
 import com.gmail.filoghost.holographicdisplays.util.reflection.ReflectField;
 
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelPipeline;
+
 import net.minecraft.server.v1_13_R1.ChatComponentText;
 import net.minecraft.server.v1_13_R1.Entity;
 import net.minecraft.server.v1_13_R1.EntityTypes;
@@ -79,34 +88,40 @@ public class NmsManagerImpl implements NMSManager {
 	}
 	
 	@Override
-	public NMSItem spawnNMSItem(org.bukkit.World bukkitWorld, double x, double y, double z, ItemLine parentPiece, ItemStack stack, ItemPickupManager itemPickupManager) {
+	public NMSItem spawnNMSItem(org.bukkit.World bukkitWorld, double x, double y, double z, ItemLine parentPiece, ItemStack stack, ItemPickupManager itemPickupManager, boolean virtual) {
 		WorldServer nmsWorld = ((CraftWorld) bukkitWorld).getHandle();
 		EntityNMSItem customItem = new EntityNMSItem(nmsWorld, parentPiece, itemPickupManager);
 		customItem.setLocationNMS(x, y, z);
 		customItem.setItemStackNMS(stack);
-		if (!addEntityToWorld(nmsWorld, customItem)) {
+		if (virtual) {
+			NMSEntityIndex.add(customItem);
+		} else if (!addEntityToWorld(nmsWorld, customItem)) {
 			ConsoleLogger.handleSpawnFail(parentPiece);
 		}
 		return customItem;
 	}
 	
 	@Override
-	public EntityNMSSlime spawnNMSSlime(org.bukkit.World bukkitWorld, double x, double y, double z, HologramLine parentPiece) {
+	public EntityNMSSlime spawnNMSSlime(org.bukkit.World bukkitWorld, double x, double y, double z, HologramLine parentPiece, boolean virtual) {
 		WorldServer nmsWorld = ((CraftWorld) bukkitWorld).getHandle();
 		EntityNMSSlime touchSlime = new EntityNMSSlime(nmsWorld, parentPiece);
 		touchSlime.setLocationNMS(x, y, z);
-		if (!addEntityToWorld(nmsWorld, touchSlime)) {
+		if (virtual) {
+			NMSEntityIndex.add(touchSlime);
+		} else if (!addEntityToWorld(nmsWorld, touchSlime)) {
 			ConsoleLogger.handleSpawnFail(parentPiece);
 		}
 		return touchSlime;
 	}
 	
 	@Override
-	public NMSArmorStand spawnNMSArmorStand(org.bukkit.World world, double x, double y, double z, HologramLine parentPiece, boolean broadcastLocationPacket) {
+	public NMSArmorStand spawnNMSArmorStand(org.bukkit.World world, double x, double y, double z, HologramLine parentPiece, boolean virtual) {
 		WorldServer nmsWorld = ((CraftWorld) world).getHandle();
 		EntityNMSArmorStand invisibleArmorStand = new EntityNMSArmorStand(nmsWorld, parentPiece);
-		invisibleArmorStand.setLocationNMS(x, y, z, broadcastLocationPacket);
-		if (!addEntityToWorld(nmsWorld, invisibleArmorStand)) {
+		invisibleArmorStand.setLocationNMS(x, y, z);
+		if (virtual) {
+			NMSEntityIndex.add(invisibleArmorStand);
+		} else if (!addEntityToWorld(nmsWorld, invisibleArmorStand)) {
 			ConsoleLogger.handleSpawnFail(parentPiece);
 		}
 		return invisibleArmorStand;
@@ -114,6 +129,7 @@ public class NmsManagerImpl implements NMSManager {
 	
 	private boolean addEntityToWorld(WorldServer nmsWorld, Entity nmsEntity) {
 		Validator.isTrue(Bukkit.isPrimaryThread(), "Async entity add");
+		NMSEntityIndex.add((NMSEntityBase) nmsEntity);
 		
         final int chunkX = MathHelper.floor(nmsEntity.locX / 16.0);
         final int chunkZ = MathHelper.floor(nmsEntity.locZ / 16.0);
@@ -174,11 +190,50 @@ public class NmsManagerImpl implements NMSManager {
 		}
 	}
 	
+	@Override
+	public Object createCustomNameObject(String customName) {
+		return CraftChatMessage.fromStringOrNull(Utils.limitLength(customName, 300));
+	}
+	
 	@Override
 	public Object replaceCustomNameText(Object customNameObject, String target, String replacement) {
 		return CustomNameHelper.replaceCustomNameChatComponent(NMSChatComponentAdapter.INSTANCE, customNameObject, target, replacement);
 	}
 	
+	@Override
+	public void injectPacketInterceptor(Player player, PacketInterceptor packetInterceptor) {
+		// Not added on the event loop, the pipeline is thread safe: the packets written after this call already pass through it.
+		ChannelPipeline pipeline = getChannel(player).pipeline();
+		
+		// Added before the connection, so that all the packets it writes pass through the interceptor.
+		if (pipeline.get(PacketInterceptor.HANDLER_NAME) == null && pipeline.get("packet_handler") != null) {
+			pipeline.addBefore("packet_handler", PacketInterceptor.HANDLER_NAME, new PacketInterceptorHandler(player, packetInterceptor));
+		}
+	}
+	
+	@Override
+	public void uninjectPacketInterceptor(Player player) {
+		ChannelPipeline pipeline = getChannel(player).pipeline();
+		
+		if (pipeline.get(PacketInterceptor.HANDLER_NAME) != null) {
+			pipeline.remove(PacketInterceptor.HANDLER_NAME);
+		}
+	}
+	
+	@Override
+	public void sendPackets(Player player, List<Object> nmsPackets) {
+		Channel channel = getChannel(player);
+		
+		for (Object nmsPacket : nmsPackets) {
+			channel.write(nmsPacket);
+		}
+		channel.flush();
+	}
+	
+	private Channel getChannel(Player player) {
+		return ((CraftPlayer) player).getHandle().playerConnection.networkManager.channel;
+	}
+	
 	@Override
 	public int getCurrentTick() {
 		return MinecraftServer.currentTick;
@@ -0,0 +1,46 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.nms.v1_13_R2;
+
+import org.bukkit.entity.Player;
+
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.PacketInterceptor;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+public class PacketInterceptorHandler extends ChannelDuplexHandler {
+	
+	private final Player player;
+	private final PacketInterceptor packetInterceptor;
+	
+	public PacketInterceptorHandler(Player player, PacketInterceptor packetInterceptor) {
+		this.player = player;
+		this.packetInterceptor = packetInterceptor;
+	}
+	
+	@Override
+	public void write(ChannelHandlerContext context, Object packet, ChannelPromise promise) throws Exception {
+		Object interceptedPacket = packetInterceptor.onPacketSending(player, packet);
+		
+		if (interceptedPacket != null) {
+			super.write(context, interceptedPacket, promise);
+		} else {
+			promise.trySuccess(); // Nothing is written, but the sender must not wait forever
+		}
+	}
+
+}
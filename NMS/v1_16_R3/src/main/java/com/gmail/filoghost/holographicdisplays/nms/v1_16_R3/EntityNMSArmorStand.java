@@ -23,9 +23,16 @@ import org.bukkit.craftbukkit.v1_16_R3.util.CraftChatMessage;
 
 public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorStand {
 
+    // The update interval of the armor stands in EntityTrackerEntry.
+    private static final int TRACKER_UPDATE_INTERVAL = 3;
+
     private HologramLine parentPiece;
     private CraftEntity customBukkitEntity;
     private String customName;
+    private boolean locationChanged;
+    // The onGround value read by EntityTrackerEntry, assumed once it had the time to read a new one.
+    private boolean trackerOnGround;
+    private int onGroundChangeTicks;
 
     public EntityNMSArmorStand(World world, HologramLine parentPiece) {
         super(EntityTypes.ARMOR_STAND, world);
@@ -40,15 +47,31 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
         forceSetBoundingBox(new NullBoundingBox());
         
         this.onGround = true; // Workaround to force EntityTrackerEntry to send a teleport packet.
+        this.trackerOnGround = true;
     }
     
 	@Override
 	public void tick() {
 		// Disable normal ticking for this entity.
 		
-		// Workaround to force EntityTrackerEntry to send a teleport packet immediately after spawning this entity.
-		if (this.onGround) {
-			this.onGround = false;
+		// Workaround to force EntityTrackerEntry to send a teleport packet instead of a relative move, after spawning or moving this entity.
+		updateOnGround();
+	}
+	
+	private void updateOnGround() {
+		// The tracker reads onGround only every few ticks: a new value is kept until it's read, and the value
+		// is changed again only then, if the entity has moved meanwhile.
+		if (this.onGround != this.trackerOnGround) {
+			if (++this.onGroundChangeTicks < TRACKER_UPDATE_INTERVAL) {
+				return;
+			}
+			this.trackerOnGround = this.onGround;
+		}
+		
+		if (this.locationChanged) {
+			this.onGround = !this.trackerOnGround;
+			this.onGroundChangeTicks = 0;
+			this.locationChanged = false;
 		}
 	}
 	
@@ -56,10 +79,8 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
 	public void inactiveTick() {
 		// Disable normal ticking for this entity.
 		
-		// Workaround to force EntityTrackerEntry to send a teleport packet immediately after spawning this entity.
-		if (this.onGround) {
-			this.onGround = false;
-		}
+		// Workaround to force EntityTrackerEntry to send a teleport packet instead of a relative move, after spawning or moving this entity.
+		updateOnGround();
 	}
 
     @Override
@@ -158,6 +179,13 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
         super.setCustomNameVisible(customName != null && !customName.isEmpty());
     }
 
+    @Override
+    public void setCustomNameNMS(String name, Object customNameObject) {
+        this.customName = Utils.limitLength(name, 300);
+        super.setCustomName((IChatBaseComponent) customNameObject);
+        super.setCustomNameVisible(customName != null && !customName.isEmpty());
+    }
+
     @Override
     public String getCustomNameStringNMS() {
         return this.customName;
@@ -187,26 +215,9 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
     }
 
     @Override
-    public void setLocationNMS(double x, double y, double z, boolean broadcastLocationPacket) {
+    public void setLocationNMS(double x, double y, double z) {
         super.setPosition(x, y, z);
-        if (broadcastLocationPacket) {
-        	broadcastLocationPacketNMS();
-        }
-    }
-    
-    private void broadcastLocationPacketNMS() {
-        PacketPlayOutEntityTeleport teleportPacket = new PacketPlayOutEntityTeleport(this);
-
-        for (Object obj : super.world.getPlayers()) {
-            if (obj instanceof EntityPlayer) {
-                EntityPlayer nmsPlayer = (EntityPlayer) obj;
-
-                double distanceSquared = Utils.square(nmsPlayer.locX() - super.locX()) + Utils.square(nmsPlayer.locZ() - super.locZ());
-                if (distanceSquared < 8192 && nmsPlayer.playerConnection != null) {
-                    nmsPlayer.playerConnection.sendPacket(teleportPacket);
-                }
-            }
-        }
+        this.locationChanged = true;
     }
 
     @Override
@@ -19,8 +19,6 @@ import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSArmorSta
 import com.gmail.filoghost.holographicdisplays.util.Utils;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.network.chat.IChatBaseComponent;
-import net.minecraft.network.protocol.game.PacketPlayOutEntityTeleport;
-import net.minecraft.server.level.EntityPlayer;
 import net.minecraft.sounds.SoundEffect;
 import net.minecraft.world.EnumHand;
 import net.minecraft.world.EnumInteractionResult;
@@ -38,9 +36,16 @@ import org.bukkit.craftbukkit.v1_17_R1.util.CraftChatMessage;
 
 public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorStand {
 
+    // The update interval of the armor stands in EntityTrackerEntry.
+    private static final int TRACKER_UPDATE_INTERVAL = 3;
+
     private HologramLine parentPiece;
     private CraftEntity customBukkitEntity;
     private String customName;
+    private boolean locationChanged;
+    // The onGround value read by EntityTrackerEntry, assumed once it had the time to read a new one.
+    private boolean trackerOnGround;
+    private int onGroundChangeTicks;
 
     public EntityNMSArmorStand(World world, HologramLine parentPiece) {
         super(EntityTypes.c, world);
@@ -55,15 +60,31 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
         forceSetBoundingBox(new NullBoundingBox());
         
         this.z /* onGround */ = true; // Workaround to force EntityTrackerEntry to send a teleport packet.
+        this.trackerOnGround = true;
     }
     
 	@Override
 	public void tick() {
 		// Disable normal ticking for this entity.
 		
-		// Workaround to force EntityTrackerEntry to send a teleport packet immediately after spawning this entity.
-		if (this.z /* onGround */) {
-			this.z = false;
+		// Workaround to force EntityTrackerEntry to send a teleport packet instead of a relative move, after spawning or moving this entity.
+		updateOnGround();
+	}
+	
+	private void updateOnGround() {
+		// The tracker reads onGround only every few ticks: a new value is kept until it's read, and the value
+		// is changed again only then, if the entity has moved meanwhile.
+		if (this.z /* onGround */ != this.trackerOnGround) {
+			if (++this.onGroundChangeTicks < TRACKER_UPDATE_INTERVAL) {
+				return;
+			}
+			this.trackerOnGround = this.z;
+		}
+		
+		if (this.locationChanged) {
+			this.z /* onGround */ = !this.trackerOnGround;
+			this.onGroundChangeTicks = 0;
+			this.locationChanged = false;
 		}
 	}
 	
@@ -71,10 +92,8 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
 	public void inactiveTick() {
 		// Disable normal ticking for this entity.
 		
-		// Workaround to force EntityTrackerEntry to send a teleport packet immediately after spawning this entity.
-		if (this.z /* onGround */) {
-			this.z = false;
-		}
+		// Workaround to force EntityTrackerEntry to send a teleport packet instead of a relative move, after spawning or moving this entity.
+		updateOnGround();
 	}
 
     @Override
@@ -172,6 +191,13 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
         super.setCustomNameVisible(customName != null && !customName.isEmpty());
     }
 
+    @Override
+    public void setCustomNameNMS(String name, Object customNameObject) {
+        this.customName = Utils.limitLength(name, 300);
+        super.setCustomName((IChatBaseComponent) customNameObject);
+        super.setCustomNameVisible(customName != null && !customName.isEmpty());
+    }
+
     @Override
     public String getCustomNameStringNMS() {
         return this.customName;
@@ -206,26 +232,9 @@ public class EntityNMSArmorStand extends EntityArmorStand implements NMSArmorSta
     }
 
     @Override
-    public void setLocationNMS(double x, double y, double z, boolean broadcastLocationPacket) {
+    public void setLocationNMS(double x, double y, double z) {
         super.setPosition(x, y, z);
-        if (broadcastLocationPacket) {
-        	broadcastLocationPacketNMS();
-        }
-    }
-    
-    private void broadcastLocationPacketNMS() {
-        PacketPlayOutEntityTeleport teleportPacket = new PacketPlayOutEntityTeleport(this);
-
-        for (Object obj : super.getWorld().getPlayers()) {
-            if (obj instanceof EntityPlayer) {
-                EntityPlayer nmsPlayer = (EntityPlayer) obj;
-
-                double distanceSquared = Utils.square(nmsPlayer.locX() - super.locX()) + Utils.square(nmsPlayer.locZ() - super.locZ());
-                if (distanceSquared < 8192 && nmsPlayer.b /* playerConnection */ != null) {
-                    nmsPlayer.b.sendPacket(teleportPacket);
-                }
-            }
-        }
+        this.locationChanged = true;
     }
 
     @Override
@@ -21,6 +21,7 @@ import java.util.regex.Pattern;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import com.gmail.filoghost.holographicdisplays.api.internal.BackendAPI;
@@ -35,9 +36,12 @@ import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSManager;
 import com.gmail.filoghost.holographicdisplays.object.DefaultBackendAPI;
 import com.gmail.filoghost.holographicdisplays.object.NamedHologram;
 import com.gmail.filoghost.holographicdisplays.object.NamedHologramManager;
+import com.gmail.filoghost.holographicdisplays.object.PlayerIndex;
 import com.gmail.filoghost.holographicdisplays.object.PluginHologram;
 import com.gmail.filoghost.holographicdisplays.object.PluginHologramManager;
+import com.gmail.filoghost.holographicdisplays.object.VirtualHologramTracker;
 import com.gmail.filoghost.holographicdisplays.placeholder.AnimationsRegister;
+import com.gmail.filoghost.holographicdisplays.placeholder.AsyncPlaceholder;
 import com.gmail.filoghost.holographicdisplays.placeholder.PlaceholdersManager;
 import com.gmail.filoghost.holographicdisplays.task.BungeeCleanupTask;
 import com.gmail.filoghost.holographicdisplays.task.StartupLoadHologramsTask;
@@ -121,6 +125,11 @@ public class HolographicDisplays extends JavaPlugin {
 		
 		// ProtocolLib check.
 		hookProtocolLib();
+		if (protocolLibHook != null) {
+			VirtualHologramTracker.start(this);
+		} else if (Configuration.virtualHolograms) {
+			ConsoleLogger.log(Level.WARNING, "The virtual holograms require ProtocolLib, the holograms will be spawned as entities.");
+		}
 		
 		// PlaceholderAPI check.
 		try {
@@ -153,6 +162,11 @@ public class HolographicDisplays extends JavaPlugin {
 		
 		getCommand("holograms").setExecutor(commandHandler = new HologramsCommandHandler());
 		Bukkit.getPluginManager().registerEvents(mainListener = new MainListener(nmsManager), this);
+		
+		// The players already online didn't trigger the join event.
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			PlayerIndex.assign(player);
+		}
 
 		// Holograms are loaded later, when the worlds are ready.
 		Bukkit.getScheduler().runTask(this, new StartupLoadHologramsTask());
@@ -170,6 +184,10 @@ public class HolographicDisplays extends JavaPlugin {
 		for (PluginHologram hologram : PluginHologramManager.getHolograms()) {
 			hologram.despawnEntities();
 		}
+		AsyncPlaceholder.shutdownExecutor();
+		if (protocolLibHook != null) {
+			protocolLibHook.unhook();
+		}
 	}
 	
 	public static NMSManager getNMSManager() {
@@ -20,11 +20,14 @@ import org.bukkit.plugin.Plugin;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSManager;
 import com.gmail.filoghost.holographicdisplays.object.CraftHologram;
 import com.gmail.filoghost.holographicdisplays.object.line.CraftHologramLine;
+import com.gmail.filoghost.holographicdisplays.object.line.CraftTextLine;
 
 public interface ProtocolLibHook {
 	
 	public boolean hook(Plugin plugin, NMSManager nmsManager);
 	
+	public void unhook();
+	
 	public void sendDestroyEntitiesPacket(Player player, CraftHologram hologram);
 	
 	public void sendDestroyEntitiesPacket(Player player, CraftHologramLine line);
@@ -32,5 +35,24 @@ public interface ProtocolLibHook {
 	public void sendCreateEntitiesPacket(Player player, CraftHologram hologram);
 	
 	public void sendCreateEntitiesPacket(Player player, CraftHologramLine line);
+	
+	// Only needed by the virtual holograms, the server sends the metadata and the movements of the other entities.
+	public void sendCustomNameMetadataPacket(Player player, CraftTextLine line);
+	
+	public void sendTeleportPacket(Player player, CraftHologramLine line);
+	
+	// The names with the relative placeholders replaced are cached for each line and player, until one of them is gone.
+	public void clearRelativeNames(Player player);
+	
+	public void clearRelativeNames(CraftHologramLine line);
+	
+	// The packets are sent on the next tick, these counters are for debugging.
+	public long getQueuedRequestsCount();
+	
+	public long getCoalescedRequestsCount();
+	
+	public long getSentPacketsCount();
+	
+	public long getFlushesCount();
 
 }
@@ -43,6 +43,12 @@ public class MetadataHelper {
 	private int armorStandStatusIndex;
 	private int slimeSizeIndex;
 	
+	// Resolved once, they are read for every packet.
+	private boolean dataWatcherObjects; // 1.9+
+	private boolean optionalItemStack; // 1.9 and 1.10
+	private boolean chatComponentCustomName; // 1.13+
+	private boolean slimeSizeMetadata; // 1.15+
+	
 	
 	public MetadataHelper() {
 		if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_17_R1)) {
@@ -72,7 +78,12 @@ public class MetadataHelper {
 		noGravityIndex = 5;
 		slimeSizeIndex = 15;
 		
-		if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_9_R1)) {
+		dataWatcherObjects = NMSVersion.isGreaterEqualThan(NMSVersion.v1_9_R1);
+		optionalItemStack = NMSVersion.isBetween(NMSVersion.v1_9_R1, NMSVersion.v1_10_R1);
+		chatComponentCustomName = NMSVersion.isGreaterEqualThan(NMSVersion.v1_13_R1);
+		slimeSizeMetadata = NMSVersion.isGreaterEqualThan(NMSVersion.v1_15_R1);
+		
+		if (dataWatcherObjects) {
 			itemSerializer = Registry.get(MinecraftReflection.getItemStackClass());
 			intSerializer = Registry.get(Integer.class);
 			byteSerializer = Registry.get(Byte.class);
@@ -80,14 +91,14 @@ public class MetadataHelper {
 			booleanSerializer = Registry.get(Boolean.class);
 		}
 		
-		if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_13_R1)) {
+		if (chatComponentCustomName) {
 			chatComponentSerializer = Registry.get(MinecraftReflection.getIChatBaseComponentClass(), true);
 		}
 	}
 	
 	
 	public void setEntityStatus(WrappedDataWatcher dataWatcher, byte statusBitmask) {
-		requireMinimumVersion(NMSVersion.v1_9_R1);
+		requireDataWatcherObjects();
 		dataWatcher.setObject(new WrappedDataWatcherObject(entityStatusIndex, byteSerializer), statusBitmask);
 	}
 	
@@ -116,7 +127,7 @@ public class MetadataHelper {
 			return null;
 		}
 		
-		if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_13_R1)) {
+		if (chatComponentCustomName) {
 			if (!(customNameNMSObject instanceof Optional)) {
 				throw new IllegalArgumentException("Expected custom name of type " + Optional.class);
 			}
@@ -133,8 +144,28 @@ public class MetadataHelper {
 	}
 	
 	
+	public WrappedWatchableObject createCustomNameWatchableObject(Object customNameNMSObject) {
+		if (chatComponentCustomName) {
+			return new WrappedWatchableObject(new WrappedDataWatcherObject(customNameIndex, chatComponentSerializer), Optional.ofNullable(customNameNMSObject));
+		} else if (dataWatcherObjects) {
+			return new WrappedWatchableObject(new WrappedDataWatcherObject(customNameIndex, stringSerializer), customNameNMSObject);
+		} else {
+			return new WrappedWatchableObject(customNameIndex, customNameNMSObject);
+		}
+	}
+	
+	
+	public WrappedWatchableObject createCustomNameVisibleWatchableObject(boolean customNameVisible) {
+		if (dataWatcherObjects) {
+			return new WrappedWatchableObject(new WrappedDataWatcherObject(customNameVisibleIndex, booleanSerializer), customNameVisible);
+		} else {
+			return new WrappedWatchableObject(customNameVisibleIndex, (byte) (customNameVisible ? 1 : 0));
+		}
+	}
+	
+	
 	public void setCustomNameNMSObject(WrappedWatchableObject customNameWatchableObject, Object customNameNMSObject) {
-		if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_13_R1)) {
+		if (chatComponentCustomName) {
 			customNameWatchableObject.setValue(Optional.ofNullable(customNameNMSObject));
 		} else {
 			customNameWatchableObject.setValue(customNameNMSObject);
@@ -143,9 +174,9 @@ public class MetadataHelper {
 
 	
 	public void setCustomNameNMSObject(WrappedDataWatcher dataWatcher, Object customNameNMSObject) {
-		requireMinimumVersion(NMSVersion.v1_9_R1);
+		requireDataWatcherObjects();
 		
-		if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_13_R1)) {
+		if (chatComponentCustomName) {
 			dataWatcher.setObject(new WrappedDataWatcherObject(customNameIndex, chatComponentSerializer), Optional.ofNullable(customNameNMSObject));
 		} else {
 			dataWatcher.setObject(new WrappedDataWatcherObject(customNameIndex, stringSerializer), customNameNMSObject);
@@ -154,29 +185,50 @@ public class MetadataHelper {
 
 	
 	public void setCustomNameVisible(WrappedDataWatcher dataWatcher, boolean customNameVisible) {
-		requireMinimumVersion(NMSVersion.v1_9_R1);
+		requireDataWatcherObjects();
 		dataWatcher.setObject(new WrappedDataWatcherObject(customNameVisibleIndex, booleanSerializer), customNameVisible);
 	}
 
 	
 	public void setNoGravity(WrappedDataWatcher dataWatcher, boolean noGravity) {
-		requireMinimumVersion(NMSVersion.v1_9_R1);
+		requireDataWatcherObjects();
 		dataWatcher.setObject(new WrappedDataWatcherObject(noGravityIndex, booleanSerializer), noGravity);
 	}
 
 	
 	public void setArmorStandStatus(WrappedDataWatcher dataWatcher, byte statusBitmask) {
-		requireMinimumVersion(NMSVersion.v1_9_R1);
+		requireDataWatcherObjects();
 		dataWatcher.setObject(new WrappedDataWatcherObject(armorStandStatusIndex, byteSerializer), statusBitmask);
 	}
 
 	
+	/**
+	 * Sets the metadata of an item, except the item stack itself.
+	 */
+	public void setItemStaticMetadata(WrappedDataWatcher dataWatcher) {
+		requireDataWatcherObjects();
+		dataWatcher.setObject(new WrappedDataWatcherObject(airLevelWatcherIndex, intSerializer), 300);
+		dataWatcher.setObject(new WrappedDataWatcherObject(entityStatusIndex, byteSerializer), (byte) 0);
+	}
+	
+	
+	public WrappedWatchableObject createItemStackWatchableObject(Object nmsItemStack) {
+		requireDataWatcherObjects();
+		
+		if (optionalItemStack) {
+			return new WrappedWatchableObject(new WrappedDataWatcherObject(itemSlotIndex, itemSerializer), com.google.common.base.Optional.of(nmsItemStack));
+		} else {
+			return new WrappedWatchableObject(new WrappedDataWatcherObject(itemSlotIndex, itemSerializer), nmsItemStack);
+		}
+	}
+	
+	
 	public void setItemMetadata(WrappedDataWatcher dataWatcher, Object nmsItemStack) {
-		if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_9_R1)) {
-			if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_11_R1)) {
-				dataWatcher.setObject(new WrappedDataWatcherObject(itemSlotIndex, itemSerializer), nmsItemStack);
-			} else {
+		if (dataWatcherObjects) {
+			if (optionalItemStack) {
 				dataWatcher.setObject(new WrappedDataWatcherObject(itemSlotIndex, itemSerializer), com.google.common.base.Optional.of(nmsItemStack));
+			} else {
+				dataWatcher.setObject(new WrappedDataWatcherObject(itemSlotIndex, itemSerializer), nmsItemStack);
 			}
 			dataWatcher.setObject(new WrappedDataWatcherObject(airLevelWatcherIndex, intSerializer), 300);
 			dataWatcher.setObject(new WrappedDataWatcherObject(entityStatusIndex, byteSerializer), (byte) 0);
@@ -189,14 +241,16 @@ public class MetadataHelper {
 	
 	
 	public void setSlimeSize(WrappedDataWatcher dataWatcher, int size) {
-		requireMinimumVersion(NMSVersion.v1_15_R1);
+		if (!slimeSizeMetadata) {
+			throw new UnsupportedOperationException("Method only available from NMS version " + NMSVersion.v1_15_R1);
+		}
 		dataWatcher.setObject(new WrappedDataWatcherObject(slimeSizeIndex, intSerializer), size);
 	}
 	
 	
-	private static void requireMinimumVersion(NMSVersion minimumVersion) {
-		if (!NMSVersion.isGreaterEqualThan(minimumVersion)) {
-			throw new UnsupportedOperationException("Method only available from NMS version " + minimumVersion);
+	private void requireDataWatcherObjects() {
+		if (!dataWatcherObjects) {
+			throw new UnsupportedOperationException("Method only available from NMS version " + NMSVersion.v1_9_R1);
 		}
 	}
 	
@@ -0,0 +1,140 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.plugin.Plugin;
+
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSEntityIndex;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSManager;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.PacketInterceptor;
+import com.gmail.filoghost.holographicdisplays.object.CraftHologram;
+import com.gmail.filoghost.holographicdisplays.object.NamedHologramManager;
+import com.gmail.filoghost.holographicdisplays.object.PluginHologramManager;
+import com.gmail.filoghost.holographicdisplays.object.VirtualHologramTracker;
+import com.gmail.filoghost.holographicdisplays.object.line.CraftHologramLine;
+import com.gmail.filoghost.holographicdisplays.object.line.CraftTextLine;
+import com.gmail.filoghost.holographicdisplays.util.ConsoleLogger;
+
+/**
+ * Filters the packets in the connection of each player, instead of a ProtocolLib listener.
+ * The packets of the entities not related to holograms are recognized from their class and entity ID, without being wrapped.
+ */
+public class NettyPacketListener implements PacketInterceptor, Listener {
+	
+	private final ProtocolLibHookImpl protocolLibHook;
+	private final NMSManager nmsManager;
+	
+	// Only read after the constructor, from the netty threads.
+	private final Map<Class<?>, Field> entityIDFields;
+	
+	public NettyPacketListener(ProtocolLibHookImpl protocolLibHook, NMSManager nmsManager, PacketType... packetTypes) {
+		this.protocolLibHook = protocolLibHook;
+		this.nmsManager = nmsManager;
+		this.entityIDFields = new HashMap<>();
+		
+		for (PacketType packetType : packetTypes) {
+			// The same field read by the wrappers as the entity ID.
+			Field entityIDField = new PacketContainer(packetType).getIntegers().getField(0);
+			entityIDField.setAccessible(true);
+			entityIDFields.put(packetType.getPacketClass(), entityIDField);
+		}
+	}
+	
+	public void start(Plugin plugin) {
+		Bukkit.getPluginManager().registerEvents(this, plugin);
+		
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			nmsManager.injectPacketInterceptor(player, this);
+			resendHolograms(player);
+		}
+	}
+	
+	public void stop() {
+		HandlerList.unregisterAll(this);
+		
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			nmsManager.uninjectPacketInterceptor(player);
+		}
+	}
+	
+	@EventHandler(priority = EventPriority.LOWEST)
+	public void onJoin(PlayerJoinEvent event) {
+		// The connection is ready only now, but the entities are sent to the player after the event.
+		nmsManager.injectPacketInterceptor(event.getPlayer(), this);
+	}
+	
+	/**
+	 * Sends again the holograms already shown to a player before the interceptor was injected, their packets were not filtered.
+	 */
+	private void resendHolograms(Player player) {
+		List<CraftHologram> holograms = new ArrayList<>();
+		holograms.addAll(NamedHologramManager.getHolograms());
+		holograms.addAll(PluginHologramManager.getHolograms());
+		
+		for (CraftHologram hologram : holograms) {
+			if (hologram.isVirtual() || hologram.isDeleted() || player.getWorld() != hologram.getWorld()) {
+				continue;
+			}
+			
+			// The entities are spawned by the server tracker, only the names replaced for each player are sent again.
+			// The client ignores the metadata of the entities it doesn't have.
+			for (CraftHologramLine line : hologram.getLinesUnsafe()) {
+				if (line instanceof CraftTextLine && line.getRelativePlaceholders() != null) {
+					protocolLibHook.sendCustomNameMetadataPacket(player, (CraftTextLine) line);
+				}
+			}
+		}
+		
+		VirtualHologramTracker.resendHolograms(player);
+	}
+	
+	@Override
+	public Object onPacketSending(Player player, Object packet) {
+		Field entityIDField = entityIDFields.get(packet.getClass());
+		if (entityIDField == null) {
+			return packet;
+		}
+		
+		try {
+			if (NMSEntityIndex.get(entityIDField.getInt(packet)) == null) {
+				return packet; // Entity not related to holograms
+			}
+			
+			PacketContainer filteredPacket = protocolLibHook.filterPacket(player, PacketContainer.fromPacket(packet));
+			return filteredPacket != null ? filteredPacket.getHandle() : null;
+			
+		} catch (Throwable t) {
+			ConsoleLogger.log(Level.WARNING, "Could not filter a hologram packet for " + player.getName() + ".", t);
+			return packet;
+		}
+	}
+
+}
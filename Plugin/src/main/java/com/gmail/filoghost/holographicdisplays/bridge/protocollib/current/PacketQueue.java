@@ -0,0 +1,214 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSManager;
+
+/**
+ * Collects the packets to send to each player during a tick, then writes them all together on the next tick, flushing the connection once.
+ * The packets are created only when sent, from the current state of the entities, so a spawn followed by a destroy
+ * or two spawns of the same line in the same tick cost nothing more than needed. The destroys of a tick are merged
+ * into a single list of IDs and sent before the spawns, the teleports and the name updates.
+ * The visibility can be changed from any thread, the queue is synchronized but the packets are always sent from the main thread.
+ */
+public class PacketQueue {
+	
+	private final PacketStrategy packetStrategy;
+	private final NMSManager nmsManager;
+	private final Map<UUID, PlayerQueue> queues = new HashMap<>();
+	
+	private long queuedRequests;
+	private long coalescedRequests;
+	private long flushes;
+	
+	public PacketQueue(PacketStrategy packetStrategy, NMSManager nmsManager) {
+		this.packetStrategy = packetStrategy;
+		this.nmsManager = nmsManager;
+	}
+	
+	public void start(Plugin plugin) {
+		Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, this::flush, 1L, 1L);
+	}
+	
+	/**
+	 * Queues the spawn of a line, unless it was already queued.
+	 */
+	public synchronized void queueSpawn(Player player, Object line, Runnable sender) {
+		PlayerQueue queue = getQueue(player);
+		queuedRequests++;
+		
+		if (queue.spawns.containsKey(line)) {
+			coalescedRequests++;
+			return;
+		}
+		
+		queue.spawns.put(line, sender);
+		
+		// The spawn already contains the current position and name.
+		if (queue.teleports.remove(line) != null) {
+			coalescedRequests++;
+		}
+		if (queue.nameUpdates.remove(line) != null) {
+			coalescedRequests++;
+		}
+	}
+	
+	/**
+	 * Queues the teleport of a line, unless its spawn or another teleport were already queued.
+	 */
+	public synchronized void queueTeleport(Player player, Object line, Runnable sender) {
+		PlayerQueue queue = getQueue(player);
+		queueUpdate(queue, queue.teleports, line, sender);
+	}
+	
+	/**
+	 * Queues the update of the name of a line, unless its spawn or another name update were already queued.
+	 */
+	public synchronized void queueNameUpdate(Player player, Object line, Runnable sender) {
+		PlayerQueue queue = getQueue(player);
+		queueUpdate(queue, queue.nameUpdates, line, sender);
+	}
+	
+	private void queueUpdate(PlayerQueue queue, Map<Object, Runnable> updates, Object line, Runnable sender) {
+		queuedRequests++;
+		
+		if (queue.spawns.containsKey(line) || updates.containsKey(line)) {
+			coalescedRequests++;
+			return;
+		}
+		
+		updates.put(line, sender);
+	}
+	
+	/**
+	 * Queues the destroy of the entities of some lines, and removes their queued packets since they would be useless.
+	 */
+	public synchronized void queueDestroy(Player player, Iterable<?> lines, Collection<Integer> entityIDs) {
+		PlayerQueue queue = getQueue(player);
+		queuedRequests++;
+		
+		for (Object line : lines) {
+			if (queue.spawns.remove(line) != null) {
+				coalescedRequests++;
+			}
+			if (queue.teleports.remove(line) != null) {
+				coalescedRequests++;
+			}
+			if (queue.nameUpdates.remove(line) != null) {
+				coalescedRequests++;
+			}
+		}
+		
+		// The client could already have the entities, the destroy is always sent.
+		queue.destroyIDs.addAll(entityIDs);
+	}
+	
+	private PlayerQueue getQueue(Player player) {
+		PlayerQueue queue = queues.get(player.getUniqueId());
+		if (queue == null || queue.player != player) {
+			queue = new PlayerQueue(player);
+			queues.put(player.getUniqueId(), queue);
+		}
+		return queue;
+	}
+	
+	public void flush() {
+		List<PlayerQueue> queuesToFlush;
+		
+		synchronized (this) {
+			if (queues.isEmpty()) {
+				return;
+			}
+			
+			queuesToFlush = new ArrayList<>(queues.values());
+			queues.clear();
+			flushes += queuesToFlush.size();
+		}
+		
+		for (PlayerQueue queue : queuesToFlush) {
+			if (!queue.player.isOnline()) {
+				continue;
+			}
+			
+			List<Object> packets;
+			packetStrategy.startBatch(queue.player);
+			try {
+				// Before the spawns, a line could have been destroyed and spawned again.
+				if (!queue.destroyIDs.isEmpty()) {
+					packetStrategy.sendDestroyEntitiesPacket(queue.player, new ArrayList<>(queue.destroyIDs));
+				}
+				
+				runAll(queue.spawns.values());
+				runAll(queue.teleports.values());
+				runAll(queue.nameUpdates.values());
+			} finally {
+				packets = packetStrategy.endBatch();
+			}
+			
+			if (!packets.isEmpty()) {
+				nmsManager.sendPackets(queue.player, packets);
+			}
+		}
+	}
+	
+	private static void runAll(Collection<Runnable> senders) {
+		for (Runnable sender : senders) {
+			sender.run();
+		}
+	}
+	
+	public synchronized long getQueuedRequests() {
+		return queuedRequests;
+	}
+	
+	public synchronized long getCoalescedRequests() {
+		return coalescedRequests;
+	}
+	
+	public synchronized long getFlushes() {
+		return flushes;
+	}
+	
+	
+	private static class PlayerQueue {
+		
+		private final Player player;
+		
+		private final Map<Object, Runnable> spawns = new LinkedHashMap<>();
+		private final Map<Object, Runnable> teleports = new LinkedHashMap<>();
+		private final Map<Object, Runnable> nameUpdates = new LinkedHashMap<>();
+		private final Set<Integer> destroyIDs = new LinkedHashSet<>();
+		
+		private PlayerQueue(Player player) {
+			this.player = player;
+		}
+		
+	}
+
+}
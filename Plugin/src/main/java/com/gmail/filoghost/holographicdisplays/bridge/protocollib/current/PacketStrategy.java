@@ -0,0 +1,84 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current;
+
+import java.util.List;
+
+import org.bukkit.entity.Player;
+
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSArmorStand;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSEntityBase;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSItem;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSSlime;
+import com.gmail.filoghost.holographicdisplays.util.NMSVersion;
+
+/**
+ * Creates and sends the packets of the holograms in the format of a group of server versions.
+ * Only one implementation is used, chosen when ProtocolLib is hooked.
+ */
+public interface PacketStrategy {
+	
+	public void sendSpawnArmorStandPacket(Player receiver, NMSArmorStand armorStand);
+	
+	public void sendSpawnItemPacket(Player receiver, NMSItem item);
+	
+	public void sendSpawnSlimePacket(Player receiver, NMSSlime slime);
+	
+	public void sendItemMetadataPacket(Player receiver, NMSItem item);
+	
+	public void sendCustomNameMetadataPacket(Player receiver, NMSArmorStand armorStand);
+	
+	public void sendVehicleAttachPacket(Player receiver, NMSEntityBase vehicle, NMSEntityBase passenger);
+	
+	public void sendTeleportPacket(Player receiver, NMSEntityBase entity);
+	
+	public void sendDestroyEntitiesPacket(Player receiver, List<Integer> ids);
+	
+	/**
+	 * Returns true if the spawn living entity packet also contains the metadata of the entity.
+	 */
+	public boolean hasSpawnEntityLivingMetadata();
+	
+	/**
+	 * Collects the packets sent to the receiver instead of sending them, until {@link #endBatch()} is called.
+	 * Only used from the main thread.
+	 */
+	public void startBatch(Player receiver);
+	
+	/**
+	 * Returns the NMS packets collected since {@link #startBatch(Player)}, in the order they were sent.
+	 */
+	public List<Object> endBatch();
+	
+	public long getSentPackets();
+	
+	
+	public static PacketStrategy create(MetadataHelper metadataHelper) {
+		if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_17_R1)) {
+			return new PacketStrategyV1_17(metadataHelper);
+		} else if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_15_R1)) {
+			return new PacketStrategyV1_15(metadataHelper);
+		} else if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_14_R1)) {
+			return new PacketStrategyV1_14(metadataHelper);
+		} else if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_11_R1)) {
+			return new PacketStrategyV1_11(metadataHelper);
+		} else if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_9_R1)) {
+			return new PacketStrategyV1_9(metadataHelper);
+		} else {
+			return new PacketStrategyV1_8(metadataHelper);
+		}
+	}
+	
+}
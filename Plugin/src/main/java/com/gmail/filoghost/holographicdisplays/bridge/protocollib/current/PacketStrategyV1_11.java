@@ -0,0 +1,72 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.bukkit.entity.Player;
+
+import com.comphenix.protocol.wrappers.WrappedDataWatcher;
+import com.comphenix.protocol.wrappers.WrappedWatchableObject;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.AbstractPacket;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerEntityMetadata;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerSpawnEntity;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSArmorStand;
+
+/**
+ * Packets of 1.11 to 1.13, where armor stands are spawned as objects and their metadata is sent separately.
+ */
+public class PacketStrategyV1_11 extends PacketStrategyV1_9 {
+	
+	private final List<WrappedWatchableObject> armorStandMetadataTemplate;
+	
+	public PacketStrategyV1_11(MetadataHelper metadataHelper) {
+		super(metadataHelper);
+		
+		WrappedDataWatcher dataWatcher = new WrappedDataWatcher();
+		metadataHelper.setEntityStatus(dataWatcher, (byte) 0x20); // Invisible
+		metadataHelper.setNoGravity(dataWatcher, true);
+		metadataHelper.setArmorStandStatus(dataWatcher, (byte) (0x01 | 0x08 | 0x10)); // Small, no base plate, marker
+		armorStandMetadataTemplate = Collections.unmodifiableList(dataWatcher.getWatchableObjects());
+	}
+	
+	
+	protected AbstractPacket createSpawnArmorStandPacket(NMSArmorStand armorStand) {
+		return new WrapperPlayServerSpawnEntity(armorStand.getBukkitEntityNMS(), WrapperPlayServerSpawnEntity.ObjectTypes.ARMOR_STAND, 1);
+	}
+	
+	
+	@Override
+	public void sendSpawnArmorStandPacket(Player receiver, NMSArmorStand armorStand) {
+		send(receiver, createSpawnArmorStandPacket(armorStand));
+		
+		WrapperPlayServerEntityMetadata dataPacket = new WrapperPlayServerEntityMetadata();
+		List<WrappedWatchableObject> metadata = new ArrayList<>(armorStandMetadataTemplate.size() + 2);
+		metadata.addAll(armorStandMetadataTemplate);
+
+		String customName = armorStand.getCustomNameStringNMS();
+		if (customName != null && !customName.isEmpty()) {
+			metadata.add(metadataHelper.createCustomNameWatchableObject(armorStand.getCustomNameObjectNMS()));
+			metadata.add(metadataHelper.createCustomNameVisibleWatchableObject(true));
+		}
+		
+		dataPacket.setEntityMetadata(metadata);
+		dataPacket.setEntityID(armorStand.getIdNMS());
+		send(receiver, dataPacket);
+	}
+
+}
@@ -0,0 +1,36 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current;
+
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.AbstractPacket;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerSpawnEntityLiving;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSArmorStand;
+
+/**
+ * Packets of 1.14, where armor stands are spawned as living entities again.
+ */
+public class PacketStrategyV1_14 extends PacketStrategyV1_11 {
+	
+	public PacketStrategyV1_14(MetadataHelper metadataHelper) {
+		super(metadataHelper);
+	}
+	
+	
+	@Override
+	protected AbstractPacket createSpawnArmorStandPacket(NMSArmorStand armorStand) {
+		return new WrapperPlayServerSpawnEntityLiving(armorStand.getBukkitEntityNMS());
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.bukkit.entity.Player;
+
+import com.comphenix.protocol.wrappers.WrappedDataWatcher;
+import com.comphenix.protocol.wrappers.WrappedWatchableObject;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerEntityMetadata;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSSlime;
+
+/**
+ * Packets of 1.15 and 1.16, where the spawn living entity packet no longer contains the metadata.
+ */
+public class PacketStrategyV1_15 extends PacketStrategyV1_14 {
+	
+	private final List<WrappedWatchableObject> slimeMetadataTemplate;
+	
+	public PacketStrategyV1_15(MetadataHelper metadataHelper) {
+		super(metadataHelper);
+		
+		WrappedDataWatcher dataWatcher = new WrappedDataWatcher();
+		metadataHelper.setEntityStatus(dataWatcher, (byte) 0x20); // Invisible
+		metadataHelper.setSlimeSize(dataWatcher, 1); // Size 1 = small
+		slimeMetadataTemplate = Collections.unmodifiableList(dataWatcher.getWatchableObjects());
+	}
+	
+	
+	@Override
+	public void sendSpawnSlimePacket(Player receiver, NMSSlime slime) {
+		super.sendSpawnSlimePacket(receiver, slime);
+		
+		WrapperPlayServerEntityMetadata dataPacket = new WrapperPlayServerEntityMetadata();
+		dataPacket.setEntityMetadata(slimeMetadataTemplate);
+		dataPacket.setEntityID(slime.getIdNMS());
+		send(receiver, dataPacket);
+	}
+	
+	
+	@Override
+	public boolean hasSpawnEntityLivingMetadata() {
+		return false;
+	}
+
+}
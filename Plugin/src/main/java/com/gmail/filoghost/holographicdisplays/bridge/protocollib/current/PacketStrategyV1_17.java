@@ -0,0 +1,53 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current;
+
+import java.util.List;
+
+import org.bukkit.entity.Player;
+
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerEntityDestroy;
+
+/**
+ * Packets of 1.17, where the IDs of the destroy packet are a list.
+ */
+public class PacketStrategyV1_17 extends PacketStrategyV1_15 {
+	
+	// 1.17 has a single ID in the packet, 1.17.1 is back to multiple IDs in a list.
+	private final boolean singleIdDestroyPacket;
+	
+	public PacketStrategyV1_17(MetadataHelper metadataHelper) {
+		super(metadataHelper);
+		singleIdDestroyPacket = new WrapperPlayServerEntityDestroy().getHandle().getIntegers().size() > 0;
+	}
+	
+	
+	@Override
+	public void sendDestroyEntitiesPacket(Player receiver, List<Integer> ids) {
+		if (singleIdDestroyPacket) {
+			// Requires multiple packets
+			for (Integer id : ids) {
+				WrapperPlayServerEntityDestroy packet = new WrapperPlayServerEntityDestroy();
+				packet.setEntity_1_17(id);
+				send(receiver, packet);
+			}
+		} else {
+			WrapperPlayServerEntityDestroy packet = new WrapperPlayServerEntityDestroy();
+			packet.setEntitiesList(ids);
+			send(receiver, packet);
+		}
+	}
+
+}
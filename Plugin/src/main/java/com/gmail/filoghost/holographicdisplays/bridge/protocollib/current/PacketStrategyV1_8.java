@@ -0,0 +1,162 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import com.comphenix.protocol.wrappers.WrappedDataWatcher;
+import com.comphenix.protocol.wrappers.WrappedWatchableObject;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.AbstractPacket;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerAttachEntity;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerEntityDestroy;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerEntityMetadata;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerEntityTeleport;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerSpawnEntity;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerSpawnEntity.ObjectTypes;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerSpawnEntityLiving;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSArmorStand;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSEntityBase;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSItem;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSSlime;
+
+/**
+ * Packets of 1.8. The strategies of the following versions extend the previous one, overriding only what changed.
+ */
+public class PacketStrategyV1_8 implements PacketStrategy {
+	
+	protected final MetadataHelper metadataHelper;
+	private long sentPackets;
+	
+	private Player batchReceiver;
+	private List<Object> batch;
+	
+	public PacketStrategyV1_8(MetadataHelper metadataHelper) {
+		this.metadataHelper = metadataHelper;
+	}
+	
+	@Override
+	public long getSentPackets() {
+		return sentPackets;
+	}
+	
+	protected void send(Player receiver, AbstractPacket packet) {
+		if (receiver == batchReceiver) {
+			batch.add(packet.getHandle().getHandle());
+		} else {
+			packet.sendPacket(receiver);
+		}
+		sentPackets++;
+	}
+	
+	@Override
+	public void startBatch(Player receiver) {
+		batchReceiver = receiver;
+		batch = new ArrayList<>();
+	}
+	
+	@Override
+	public List<Object> endBatch() {
+		List<Object> packets = batch;
+		batchReceiver = null;
+		batch = null;
+		return packets;
+	}
+	
+	
+	@Override
+	public void sendSpawnArmorStandPacket(Player receiver, NMSArmorStand armorStand) {
+		// The metadata is sent inside the spawn packet
+		send(receiver, new WrapperPlayServerSpawnEntityLiving(armorStand.getBukkitEntityNMS()));
+	}
+	
+	
+	@Override
+	public void sendSpawnItemPacket(Player receiver, NMSItem item) {
+		send(receiver, new WrapperPlayServerSpawnEntity(item.getBukkitEntityNMS(), ObjectTypes.ITEM_STACK, 1));
+	}
+	
+	
+	@Override
+	public void sendSpawnSlimePacket(Player receiver, NMSSlime slime) {
+		send(receiver, new WrapperPlayServerSpawnEntityLiving(slime.getBukkitEntityNMS()));
+	}
+	
+	
+	@Override
+	public void sendItemMetadataPacket(Player receiver, NMSItem item) {
+		WrapperPlayServerEntityMetadata packet = new WrapperPlayServerEntityMetadata();
+		
+		WrappedDataWatcher dataWatcher = new WrappedDataWatcher();
+		metadataHelper.setItemMetadata(dataWatcher, item.getRawItemStack());
+		packet.setEntityMetadata(dataWatcher.getWatchableObjects());
+		
+		packet.setEntityID(item.getIdNMS());
+		send(receiver, packet);
+	}
+	
+	
+	@Override
+	public void sendCustomNameMetadataPacket(Player receiver, NMSArmorStand armorStand) {
+		WrapperPlayServerEntityMetadata packet = new WrapperPlayServerEntityMetadata();
+		
+		String customName = armorStand.getCustomNameStringNMS();
+		List<WrappedWatchableObject> metadata = new ArrayList<>(2);
+		metadata.add(metadataHelper.createCustomNameWatchableObject(armorStand.getCustomNameObjectNMS()));
+		metadata.add(metadataHelper.createCustomNameVisibleWatchableObject(customName != null && !customName.isEmpty()));
+		packet.setEntityMetadata(metadata);
+		
+		packet.setEntityID(armorStand.getIdNMS());
+		send(receiver, packet);
+	}
+	
+	
+	@Override
+	public void sendVehicleAttachPacket(Player receiver, NMSEntityBase vehicle, NMSEntityBase passenger) {
+		WrapperPlayServerAttachEntity packet = new WrapperPlayServerAttachEntity();
+		packet.setVehicleId(vehicle.getIdNMS());
+		packet.setEntityId(passenger.getIdNMS());
+		send(receiver, packet);
+	}
+	
+	
+	@Override
+	public void sendTeleportPacket(Player receiver, NMSEntityBase entity) {
+		Location location = entity.getBukkitEntityNMS().getLocation();
+		
+		WrapperPlayServerEntityTeleport packet = new WrapperPlayServerEntityTeleport();
+		packet.setEntityID(entity.getIdNMS());
+		packet.setPosition(location.getX(), location.getY(), location.getZ());
+		send(receiver, packet);
+	}
+	
+	
+	@Override
+	public void sendDestroyEntitiesPacket(Player receiver, List<Integer> ids) {
+		WrapperPlayServerEntityDestroy packet = new WrapperPlayServerEntityDestroy();
+		packet.setEntities(ids);
+		send(receiver, packet);
+	}
+	
+	
+	@Override
+	public boolean hasSpawnEntityLivingMetadata() {
+		return true;
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.bukkit.entity.Player;
+
+import com.comphenix.protocol.wrappers.WrappedDataWatcher;
+import com.comphenix.protocol.wrappers.WrappedWatchableObject;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerEntityMetadata;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerMount;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSEntityBase;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSItem;
+
+/**
+ * Packets of 1.9 and 1.10.
+ */
+public class PacketStrategyV1_9 extends PacketStrategyV1_8 {
+	
+	// The metadata that is the same for every item, built once. Only copied into the packets, never modified.
+	private final List<WrappedWatchableObject> itemMetadataTemplate;
+	
+	public PacketStrategyV1_9(MetadataHelper metadataHelper) {
+		super(metadataHelper);
+		
+		WrappedDataWatcher dataWatcher = new WrappedDataWatcher();
+		metadataHelper.setItemStaticMetadata(dataWatcher);
+		itemMetadataTemplate = Collections.unmodifiableList(dataWatcher.getWatchableObjects());
+	}
+	
+	
+	@Override
+	public void sendItemMetadataPacket(Player receiver, NMSItem item) {
+		WrapperPlayServerEntityMetadata packet = new WrapperPlayServerEntityMetadata();
+		
+		List<WrappedWatchableObject> metadata = new ArrayList<>(itemMetadataTemplate.size() + 1);
+		metadata.addAll(itemMetadataTemplate);
+		metadata.add(metadataHelper.createItemStackWatchableObject(item.getRawItemStack()));
+		packet.setEntityMetadata(metadata);
+		
+		packet.setEntityID(item.getIdNMS());
+		send(receiver, packet);
+	}
+	
+	
+	@Override
+	public void sendVehicleAttachPacket(Player receiver, NMSEntityBase vehicle, NMSEntityBase passenger) {
+		WrapperPlayServerMount packet = new WrapperPlayServerMount();
+		packet.setVehicleId(vehicle.getIdNMS());
+		packet.setPassengers(new int[] {passenger.getIdNMS()});
+		send(receiver, packet);
+	}
+
+}
@@ -16,10 +16,11 @@ package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 import org.bukkit.Bukkit;
-import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
@@ -33,10 +34,12 @@ import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.wrappers.WrappedWatchableObject;
 import com.gmail.filoghost.holographicdisplays.HolographicDisplays;
 import com.gmail.filoghost.holographicdisplays.bridge.protocollib.ProtocolLibHook;
-import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.EntityRelatedPacketWrapper;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.RelativeNameCache.ReplacedName;
 import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerEntityMetadata;
 import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerSpawnEntity;
 import com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet.WrapperPlayServerSpawnEntityLiving;
+import com.gmail.filoghost.holographicdisplays.disk.Configuration;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSEntityIndex;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSManager;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSArmorStand;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSEntityBase;
@@ -47,129 +50,85 @@ import com.gmail.filoghost.holographicdisplays.object.line.CraftTextLine;
 import com.gmail.filoghost.holographicdisplays.object.line.CraftTouchSlimeLine;
 import com.gmail.filoghost.holographicdisplays.object.line.CraftTouchableLine;
 import com.gmail.filoghost.holographicdisplays.placeholder.RelativePlaceholder;
-import com.gmail.filoghost.holographicdisplays.util.NMSVersion;
 
 /**
  * This is for the ProtocolLib versions containing the WrappedDataWatcher.WrappedDataWatcherObject class.
  */
 public class ProtocolLibHookImpl implements ProtocolLibHook {
 	
+	private Plugin plugin;
 	private NMSManager nmsManager;
-	private PacketHelper packetHelper;
+	private PacketStrategy packetStrategy;
 	private MetadataHelper metadataHelper;
+	private RelativeNameCache relativeNameCache;
+	private PacketQueue packetQueue;
+	private NettyPacketListener nettyPacketListener;
+	
+	private static final PacketType[] LISTENED_PACKET_TYPES = {
+		PacketType.Play.Server.SPAWN_ENTITY_LIVING,
+		PacketType.Play.Server.SPAWN_ENTITY,
+		PacketType.Play.Server.ENTITY_METADATA
+	};
 	
 	
 	@Override
 	public boolean hook(Plugin plugin, NMSManager nmsManager) {
+		this.plugin = plugin;
 		this.nmsManager = nmsManager;
 		this.metadataHelper = new MetadataHelper();
-		this.packetHelper = new PacketHelper(metadataHelper);
+		this.packetStrategy = PacketStrategy.create(metadataHelper);
+		this.relativeNameCache = new RelativeNameCache(Configuration.placeholderAPIRelativeCacheSize);
+		this.packetQueue = new PacketQueue(packetStrategy, nmsManager);
+		packetQueue.start(plugin);
+		
+		if (Configuration.virtualHolograms) {
+			// The server doesn't know the entities of the virtual holograms, it ignores their clicks.
+			ProtocolLibrary.getProtocolManager().addPacketListener(new PacketAdapter(plugin, PacketType.Play.Client.USE_ENTITY) {
+				
+				@Override
+				public void onPacketReceiving(PacketEvent event) {
+					if (event.isPlayerTemporary()) {
+						return;
+					}
+					
+					CraftHologramLine hologramLine = getHologramLine(event.getPacket().getIntegers().read(0));
+					if (hologramLine instanceof CraftTouchSlimeLine && hologramLine.getParent().isVirtual()) {
+						Player player = event.getPlayer();
+						Bukkit.getScheduler().runTask(plugin, () -> HolographicDisplays.getMainListener().handleSlimeTouch(player, (CraftTouchSlimeLine) hologramLine));
+					}
+				}
+			});
+		}
 
+		if (Configuration.nettyPacketListener) {
+			nettyPacketListener = new NettyPacketListener(this, nmsManager, LISTENED_PACKET_TYPES);
+			nettyPacketListener.start(plugin);
+			return true;
+		}
+		
 		AdapterParameteters params = PacketAdapter
 			.params()
 			.plugin(plugin)
-			.types(
-				PacketType.Play.Server.SPAWN_ENTITY_LIVING,
-				PacketType.Play.Server.SPAWN_ENTITY,
-				PacketType.Play.Server.ENTITY_METADATA,
-				PacketType.Play.Server.REL_ENTITY_MOVE,
-				PacketType.Play.Server.REL_ENTITY_MOVE_LOOK)
+			.types(LISTENED_PACKET_TYPES)
 			.serverSide()
-			.listenerPriority(ListenerPriority.NORMAL);
+			.listenerPriority(ListenerPriority.NORMAL)
+			.optionAsync(); // The packets sent asynchronously are handled too, the relative placeholders that are not thread safe are replaced on the main thread.
 		
 		ProtocolLibrary.getProtocolManager().addPacketListener(new PacketAdapter(params) {
 					  
 				@Override
 				public void onPacketSending(PacketEvent event) {
-					if (event.isPlayerTemporary() || !Bukkit.isPrimaryThread()) {
+					if (event.isPlayerTemporary()) {
 						return;
 					}
 
 					PacketContainer packet = event.getPacket();
-					Player player = event.getPlayer();
-
-					// Spawn entity packet
-					if (packet.getType() == PacketType.Play.Server.SPAWN_ENTITY_LIVING) {
-						WrapperPlayServerSpawnEntityLiving spawnEntityPacket = new WrapperPlayServerSpawnEntityLiving(packet);
-						CraftHologramLine hologramLine = getHologramLine(event, spawnEntityPacket);
-						
-						if (hologramLine == null) {
-							return;
-						}
-						
-						if (!hologramLine.getParent().getVisibilityManager().isVisibleTo(player)) {
-							event.setCancelled(true);
-							return;
-						}
-						
-						if (NMSVersion.isGreaterEqualThan(NMSVersion.v1_15_R1)) {
-							// There's no metadata field in 1.15+ on the spawn entity packet
-							return;
-						}
-						
-						if (!hologramLine.getParent().isAllowPlaceholders() || !hologramLine.hasRelativePlaceholders()) {
-							return;
-						}
-						
-						spawnEntityPacket = new WrapperPlayServerSpawnEntityLiving(packet.deepClone());
-						WrappedWatchableObject customNameWatchableObject = metadataHelper.getCustomNameWacthableObject(spawnEntityPacket.getMetadata());
-						
-						if (customNameWatchableObject == null) {
-							return;
-						}
-						
-						replaceRelativePlaceholders(customNameWatchableObject, player, hologramLine.getRelativePlaceholders());
-						event.setPacket(spawnEntityPacket.getHandle());
-
-					} else if (packet.getType() == PacketType.Play.Server.SPAWN_ENTITY) {
-						WrapperPlayServerSpawnEntity spawnEntityPacket = new WrapperPlayServerSpawnEntity(packet);
-						CraftHologramLine hologramLine = getHologramLine(event, spawnEntityPacket);
-						
-						if (hologramLine == null) {
-							return;
-						}
-						
-						if (!hologramLine.getParent().getVisibilityManager().isVisibleTo(player)) {
-							event.setCancelled(true);
-							return;
-						}
+					PacketContainer filteredPacket = filterPacket(event.getPlayer(), packet);
 					
-					} else if (packet.getType() == PacketType.Play.Server.ENTITY_METADATA) {
-						WrapperPlayServerEntityMetadata entityMetadataPacket = new WrapperPlayServerEntityMetadata(packet);
-						CraftHologramLine hologramLine = getHologramLine(event, entityMetadataPacket);
-						
-						if (hologramLine == null) {
-							return;
-						}
-						
-						if (!hologramLine.getParent().getVisibilityManager().isVisibleTo(player)) {
-							event.setCancelled(true);
-							return;
-						}
-						
-						if (!hologramLine.getParent().isAllowPlaceholders() || !hologramLine.hasRelativePlaceholders()) {
-							return;
-						}
-						
-						entityMetadataPacket = new WrapperPlayServerEntityMetadata(packet.deepClone());
-						WrappedWatchableObject customNameWatchableObject = metadataHelper.getCustomNameWatchableObject(entityMetadataPacket.getEntityMetadata());
-						
-						if (customNameWatchableObject == null) {
-							return;
-						}
-						
-						boolean modified = replaceRelativePlaceholders(customNameWatchableObject, player, hologramLine.getRelativePlaceholders());
-						if (modified) {
-							event.setPacket(entityMetadataPacket.getHandle());
-						}
-						
-					} else if (packet.getType() == PacketType.Play.Server.REL_ENTITY_MOVE || packet.getType() == PacketType.Play.Server.REL_ENTITY_MOVE_LOOK) {
-						int entityID = packet.getIntegers().read(0);
-						NMSEntityBase nmsEntityBase = getNMSEntityBase(event.getPlayer().getWorld(), entityID);
-						
-						if (nmsEntityBase instanceof NMSArmorStand) {
-							event.setCancelled(true); // Don't send relative movement packets for armor stands, only keep precise teleport packets.
-						}
+					if (filteredPacket == null) {
+						event.setCancelled(true);
+					} else if (filteredPacket != packet) {
+						event.setPacket(filteredPacket);
 					}
 				}
 			});
@@ -178,35 +137,206 @@ public class ProtocolLibHookImpl implements ProtocolLibHook {
 	}
 	
 	
-	private boolean replaceRelativePlaceholders(WrappedWatchableObject customNameWatchableObject, Player player, Collection<RelativePlaceholder> relativePlaceholders) {
+	/**
+	 * Returns the packet to send to the player, which can be a modified copy, or null if it must not be sent.
+	 */
+	PacketContainer filterPacket(Player player, PacketContainer packet) {
+		// Spawn entity packet
+		if (packet.getType() == PacketType.Play.Server.SPAWN_ENTITY_LIVING) {
+			WrapperPlayServerSpawnEntityLiving spawnEntityPacket = new WrapperPlayServerSpawnEntityLiving(packet);
+			CraftHologramLine hologramLine = getHologramLine(spawnEntityPacket.getEntityID());
+			
+			if (hologramLine == null) {
+				return packet;
+			}
+			
+			if (!hologramLine.getParent().getVisibilityManager().isVisibleTo(player)) {
+				return null;
+			}
+			
+			if (!packetStrategy.hasSpawnEntityLivingMetadata()) {
+				// There's no metadata field in 1.15+ on the spawn entity packet
+				return packet;
+			}
+			
+			if (!hologramLine.getParent().isAllowPlaceholders() || !hologramLine.hasRelativePlaceholders()) {
+				return packet;
+			}
+			
+			ReplacedName replacedCustomName = getRelativeCustomName(hologramLine, player, metadataHelper.getCustomNameWacthableObject(spawnEntityPacket.getMetadata()));
+			if (replacedCustomName == null) {
+				return packet;
+			}
+			
+			// Cloned only when needed, since the packet is shared among the players.
+			spawnEntityPacket = new WrapperPlayServerSpawnEntityLiving(packet.deepClone());
+			metadataHelper.setCustomNameNMSObject(metadataHelper.getCustomNameWacthableObject(spawnEntityPacket.getMetadata()), replacedCustomName.getNMSObject());
+			return spawnEntityPacket.getHandle();
+
+		} else if (packet.getType() == PacketType.Play.Server.SPAWN_ENTITY) {
+			WrapperPlayServerSpawnEntity spawnEntityPacket = new WrapperPlayServerSpawnEntity(packet);
+			CraftHologramLine hologramLine = getHologramLine(spawnEntityPacket.getEntityID());
+			
+			if (hologramLine == null) {
+				return packet;
+			}
+			
+			if (!hologramLine.getParent().getVisibilityManager().isVisibleTo(player)) {
+				return null;
+			}
+		
+		} else if (packet.getType() == PacketType.Play.Server.ENTITY_METADATA) {
+			WrapperPlayServerEntityMetadata entityMetadataPacket = new WrapperPlayServerEntityMetadata(packet);
+			CraftHologramLine hologramLine = getHologramLine(entityMetadataPacket.getEntityID());
+			
+			if (hologramLine == null) {
+				return packet;
+			}
+			
+			if (!hologramLine.getParent().getVisibilityManager().isVisibleTo(player)) {
+				return null;
+			}
+			
+			if (!hologramLine.getParent().isAllowPlaceholders() || !hologramLine.hasRelativePlaceholders()) {
+				return packet;
+			}
+			
+			List<WrappedWatchableObject> metadata = entityMetadataPacket.getEntityMetadata();
+			ReplacedName replacedCustomName = getRelativeCustomName(hologramLine, player, metadataHelper.getCustomNameWatchableObject(metadata));
+			if (replacedCustomName == null) {
+				return packet;
+			}
+			
+			// The packet is shared among the players: the copy only gets a new list, where the custom name is replaced by the cached watchable object.
+			List<WrappedWatchableObject> replacedMetadata = new ArrayList<>(metadata.size());
+			for (WrappedWatchableObject watchableObject : metadata) {
+				replacedMetadata.add(watchableObject.getIndex() == replacedCustomName.getWatchableObject().getIndex() ? replacedCustomName.getWatchableObject() : watchableObject);
+			}
+			
+			entityMetadataPacket = new WrapperPlayServerEntityMetadata(packet.shallowClone());
+			entityMetadataPacket.setEntityMetadata(replacedMetadata);
+			return entityMetadataPacket.getHandle();
+		}
+		
+		return packet;
+	}
+	
+	
+	/**
+	 * Returns the custom name with the relative placeholders replaced for the player, or null if nothing has to be replaced.
+	 */
+	private ReplacedName getRelativeCustomName(CraftHologramLine hologramLine, Player player, WrappedWatchableObject customNameWatchableObject) {
 		if (customNameWatchableObject == null) {
-			return false;
+			return null;
 		}
 		
 		final Object originalCustomNameNMSObject = metadataHelper.getCustomNameNMSObject(customNameWatchableObject);
 		if (originalCustomNameNMSObject == null) {
-			return false;
+			return null;
 		}
 		
+		ReplacedName replacedCustomName = relativeNameCache.get(hologramLine, player.getUniqueId(), originalCustomNameNMSObject);
+		
+		if (replacedCustomName == null) {
+			// Read once, the text of the line could be changed meanwhile.
+			Collection<RelativePlaceholder> relativePlaceholders = hologramLine.getRelativePlaceholders();
+			if (relativePlaceholders == null) {
+				return null;
+			}
+			
+			if (Bukkit.isPrimaryThread() || isThreadSafe(relativePlaceholders)) {
+				replacedCustomName = replaceRelativePlaceholders(hologramLine, player, originalCustomNameNMSObject, relativePlaceholders);
+			} else {
+				// The last replacement is sent meanwhile, the client is updated if it changes.
+				replacedCustomName = relativeNameCache.getLast(hologramLine, player.getUniqueId(), originalCustomNameNMSObject);
+				updateRelativeCustomNameLater(hologramLine, player, replacedCustomName);
+				if (replacedCustomName == null) {
+					return null;
+				}
+			}
+		}
+		
+		if (replacedCustomName.getNMSObject() == originalCustomNameNMSObject) {
+			// It means nothing has been replaced, since original custom name has been returned.
+			return null;
+		}
+		
+		return replacedCustomName;
+	}
+	
+	
+	private ReplacedName replaceRelativePlaceholders(CraftHologramLine hologramLine, Player player, Object originalCustomNameNMSObject, Collection<RelativePlaceholder> relativePlaceholders) {
 		Object replacedCustomNameNMSObject = originalCustomNameNMSObject;
+		long expirationNanos = Long.MAX_VALUE;
+		
 		for (RelativePlaceholder relativePlaceholder : relativePlaceholders) {
 			replacedCustomNameNMSObject = nmsManager.replaceCustomNameText(replacedCustomNameNMSObject, relativePlaceholder.getTextPlaceholder(), relativePlaceholder.getReplacement(player));
+			expirationNanos = Math.min(expirationNanos, relativePlaceholder.getRefreshNanos());
 		}
 		
-		if (replacedCustomNameNMSObject == originalCustomNameNMSObject) {
-			// It means nothing has been replaced, since original custom name has been returned.
-			return false;
+		WrappedWatchableObject replacedWatchableObject = null;
+		if (replacedCustomNameNMSObject != originalCustomNameNMSObject) {
+			replacedWatchableObject = metadataHelper.createCustomNameWatchableObject(replacedCustomNameNMSObject);
+		}
+		
+		ReplacedName replacedCustomName = new ReplacedName(replacedCustomNameNMSObject, replacedWatchableObject, expirationNanos);
+		relativeNameCache.put(hologramLine, player.getUniqueId(), originalCustomNameNMSObject, replacedCustomName);
+		return replacedCustomName;
+	}
+	
+	
+	private void updateRelativeCustomNameLater(CraftHologramLine hologramLine, Player player, ReplacedName lastCustomName) {
+		if (!relativeNameCache.addPendingUpdate(hologramLine, player.getUniqueId())) {
+			return;
 		}
 		
-		metadataHelper.setCustomNameNMSObject(customNameWatchableObject, replacedCustomNameNMSObject);
+		Bukkit.getScheduler().runTask(plugin, () -> {
+			relativeNameCache.removePendingUpdate(hologramLine, player.getUniqueId());
+			
+			Collection<RelativePlaceholder> relativePlaceholders = hologramLine.getRelativePlaceholders();
+			if (!player.isOnline() || !hologramLine.isSpawned() || !(hologramLine instanceof CraftTextLine) || relativePlaceholders == null) {
+				return;
+			}
+			
+			NMSArmorStand nameable = (NMSArmorStand) ((CraftTextLine) hologramLine).getNmsNameable();
+			ReplacedName replacedCustomName = replaceRelativePlaceholders(hologramLine, player, nameable.getCustomNameObjectNMS(), relativePlaceholders);
+			
+			// Sent only if changed, the packet passes through the listener again and would schedule another update.
+			if (lastCustomName == null || !Objects.equals(replacedCustomName.getNMSObject(), lastCustomName.getNMSObject())) {
+				sendCustomNameMetadataPacket(player, (CraftTextLine) hologramLine);
+			}
+		});
+	}
+	
+	
+	private static boolean isThreadSafe(Collection<RelativePlaceholder> relativePlaceholders) {
+		for (RelativePlaceholder relativePlaceholder : relativePlaceholders) {
+			if (!relativePlaceholder.isThreadSafe()) {
+				return false;
+			}
+		}
 		return true;
 	}
 	
 	
+	@Override
+	public void unhook() {
+		if (nettyPacketListener != null) {
+			nettyPacketListener.stop();
+		}
+		
+		// The entities of the virtual holograms would remain on the clients.
+		packetQueue.flush();
+	}
+	
+	
 	@Override
 	public void sendDestroyEntitiesPacket(Player player, CraftHologram hologram) {
+		List<CraftHologramLine> lines = new ArrayList<>(hologram.getLinesUnsafe());
+		
+		// The IDs are read now, the entities could be despawned before the packet is sent.
 		List<Integer> ids = new ArrayList<>();
-		for (CraftHologramLine line : hologram.getLinesUnsafe()) {
+		for (CraftHologramLine line : lines) {
 			if (line.isSpawned()) {
 				for (int id : line.getEntitiesIDs()) {
 					ids.add(id);
@@ -214,26 +344,20 @@ public class ProtocolLibHookImpl implements ProtocolLibHook {
 			}
 		}
 		
-		if (!ids.isEmpty()) {
-			packetHelper.sendDestroyEntitiesPacket(player, ids);
-		}
+		packetQueue.queueDestroy(player, lines, ids);
 	}
 	
 	
 	@Override
 	public void sendDestroyEntitiesPacket(Player player, CraftHologramLine line) {
-		if (!line.isSpawned()) {
-			return;
-		}
-		
 		List<Integer> ids = new ArrayList<>();
-		for (int id : line.getEntitiesIDs()) {
-			ids.add(id);
+		if (line.isSpawned()) {
+			for (int id : line.getEntitiesIDs()) {
+				ids.add(id);
+			}
 		}
 		
-		if (!ids.isEmpty()) {
-			packetHelper.sendDestroyEntitiesPacket(player, ids);
-		}
+		packetQueue.queueDestroy(player, Collections.singleton(line), ids);
 	}
 	
 	
@@ -247,6 +371,59 @@ public class ProtocolLibHookImpl implements ProtocolLibHook {
 	
 	@Override
 	public void sendCreateEntitiesPacket(Player player, CraftHologramLine line) {
+		// Created when sent, from the current state of the line.
+		packetQueue.queueSpawn(player, line, () -> sendCreateEntitiesPacketNow(player, line));
+	}
+	
+	
+	@Override
+	public void sendCustomNameMetadataPacket(Player player, CraftTextLine line) {
+		packetQueue.queueNameUpdate(player, line, () -> {
+			if (line.isSpawned()) {
+				packetStrategy.sendCustomNameMetadataPacket(player, (NMSArmorStand) line.getNmsNameable());
+			}
+		});
+	}
+	
+	
+	@Override
+	public void sendTeleportPacket(Player player, CraftHologramLine line) {
+		packetQueue.queueTeleport(player, line, () -> sendTeleportPacketNow(player, line));
+	}
+	
+	
+	private void sendTeleportPacketNow(Player player, CraftHologramLine line) {
+		if (!line.isSpawned()) {
+			return;
+		}
+		
+		// The passengers are moved by the clients together with the vehicles.
+		if (line instanceof CraftTextLine) {
+			packetStrategy.sendTeleportPacket(player, ((CraftTextLine) line).getNmsNameable());
+		} else if (line instanceof CraftItemLine) {
+			packetStrategy.sendTeleportPacket(player, ((CraftItemLine) line).getNmsVehicle());
+		}
+		
+		CraftTouchSlimeLine touchSlime = ((CraftTouchableLine) line).getTouchSlime();
+		if (touchSlime != null && touchSlime.isSpawned()) {
+			packetStrategy.sendTeleportPacket(player, touchSlime.getNmsVehicle());
+		}
+	}
+	
+	
+	@Override
+	public void clearRelativeNames(Player player) {
+		relativeNameCache.clearPlayer(player.getUniqueId());
+	}
+	
+	
+	@Override
+	public void clearRelativeNames(CraftHologramLine line) {
+		relativeNameCache.clearLine(line);
+	}
+	
+	
+	private void sendCreateEntitiesPacketNow(Player player, CraftHologramLine line) {
 		if (!line.isSpawned()) {
 			return;
 		}
@@ -258,7 +435,7 @@ public class ProtocolLibHookImpl implements ProtocolLibHook {
 			touchableLine = textLine;
 			
 			if (textLine.isSpawned()) {
-				packetHelper.sendSpawnArmorStandPacket(player, (NMSArmorStand) textLine.getNmsNameable());
+				packetStrategy.sendSpawnArmorStandPacket(player, (NMSArmorStand) textLine.getNmsNameable());
 			}
 			
 		} else if (line instanceof CraftItemLine) {
@@ -266,10 +443,10 @@ public class ProtocolLibHookImpl implements ProtocolLibHook {
 			touchableLine = itemLine;
 			
 			if (itemLine.isSpawned()) {
-				packetHelper.sendSpawnArmorStandPacket(player, (NMSArmorStand) itemLine.getNmsVehicle());
-				packetHelper.sendSpawnItemPacket(player, itemLine.getNmsItem());
-				packetHelper.sendVehicleAttachPacket(player, itemLine.getNmsVehicle(), itemLine.getNmsItem());
-				packetHelper.sendItemMetadataPacket(player, itemLine.getNmsItem());
+				packetStrategy.sendSpawnArmorStandPacket(player, (NMSArmorStand) itemLine.getNmsVehicle());
+				packetStrategy.sendSpawnItemPacket(player, itemLine.getNmsItem());
+				packetStrategy.sendVehicleAttachPacket(player, itemLine.getNmsVehicle(), itemLine.getNmsItem());
+				packetStrategy.sendItemMetadataPacket(player, itemLine.getNmsItem());
 			}
 		} else {
 			throw new IllegalArgumentException("Unexpected hologram line type: " + line.getClass().getName());
@@ -279,24 +456,41 @@ public class ProtocolLibHookImpl implements ProtocolLibHook {
 			CraftTouchSlimeLine touchSlime = touchableLine.getTouchSlime();
 			
 			if (touchSlime.isSpawned()) {
-				packetHelper.sendSpawnArmorStandPacket(player, (NMSArmorStand) touchSlime.getNmsVehicle());
-				packetHelper.sendSpawnSlimePacket(player, touchSlime.getNmsSlime());				
-				packetHelper.sendVehicleAttachPacket(player, touchSlime.getNmsVehicle(), touchSlime.getNmsSlime());
+				packetStrategy.sendSpawnArmorStandPacket(player, (NMSArmorStand) touchSlime.getNmsVehicle());
+				packetStrategy.sendSpawnSlimePacket(player, touchSlime.getNmsSlime());				
+				packetStrategy.sendVehicleAttachPacket(player, touchSlime.getNmsVehicle(), touchSlime.getNmsSlime());
 			}
 		}
 	}
 	
 	
-	private CraftHologramLine getHologramLine(PacketEvent packetEvent, EntityRelatedPacketWrapper packetWrapper) {
-		return getHologramLine(packetEvent.getPlayer().getWorld(), packetWrapper.getEntityID());
+	@Override
+	public long getQueuedRequestsCount() {
+		return packetQueue.getQueuedRequests();
 	}
 	
-	private CraftHologramLine getHologramLine(World world, int entityID) {
-		if (entityID < 0) {
-			return null;
-		}
-
-		NMSEntityBase nmsEntity = getNMSEntityBase(world, entityID);
+	
+	@Override
+	public long getCoalescedRequestsCount() {
+		return packetQueue.getCoalescedRequests();
+	}
+	
+	
+	@Override
+	public long getSentPacketsCount() {
+		return packetStrategy.getSentPackets();
+	}
+	
+	
+	@Override
+	public long getFlushesCount() {
+		return packetQueue.getFlushes();
+	}
+	
+	
+	private CraftHologramLine getHologramLine(int entityID) {
+		// Indexed when spawned, the other entities are rejected without looking them up in the world.
+		NMSEntityBase nmsEntity = NMSEntityIndex.get(entityID);
 		if (nmsEntity == null) {
 			return null; // Entity not existing or not related to holograms.
 		}
@@ -304,8 +498,4 @@ public class ProtocolLibHookImpl implements ProtocolLibHook {
 		return (CraftHologramLine) nmsEntity.getHologramLine();
 	}
 	
-	private NMSEntityBase getNMSEntityBase(World world, int entityID) {
-		return HolographicDisplays.getNMSManager().getNMSEntityBaseFromID(world, entityID);
-	}
-	
 }
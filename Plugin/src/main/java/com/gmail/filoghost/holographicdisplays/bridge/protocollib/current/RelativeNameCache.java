@@ -0,0 +1,215 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import com.comphenix.protocol.wrappers.WrappedWatchableObject;
+
+/**
+ * A bounded cache of the custom names with the relative placeholders replaced, for each line, original custom name and player.
+ * The original custom name is compared by identity: the NMS object is created again only when the name changes, and it's reused
+ * for the frames of the animations, so the rewritten names of each frame are reused too.
+ * An entry is valid until the first of the relative placeholders needs a refresh, but the last one is kept
+ * for the threads that cannot replace the placeholders.
+ * It's used from the threads sending the packets without locks. The entries are grouped by line, they are removed when the line
+ * is despawned or the player quits, and when there are too many the expired ones are evicted first.
+ */
+public class RelativeNameCache {
+	
+	private final int maxSize;
+	private final Map<Object, LineEntries> entriesByLine = new ConcurrentHashMap<>();
+	private final AtomicInteger size = new AtomicInteger();
+	private final AtomicBoolean evicting = new AtomicBoolean();
+	
+	public RelativeNameCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+	
+	/**
+	 * Returns the cached replaced name, or null if missing or no longer valid.
+	 */
+	public ReplacedName get(Object line, UUID playerUUID, Object originalName) {
+		ReplacedName replacedName = getLast(line, playerUUID, originalName);
+		if (replacedName == null || replacedName.isExpired(System.nanoTime())) {
+			return null;
+		}
+		
+		return replacedName;
+	}
+	
+	/**
+	 * Returns the last replaced name, even if no longer valid, or null if missing.
+	 */
+	public ReplacedName getLast(Object line, UUID playerUUID, Object originalName) {
+		LineEntries lineEntries = entriesByLine.get(line);
+		return lineEntries != null ? lineEntries.names.get(new Key(playerUUID, originalName)) : null;
+	}
+	
+	public void put(Object line, UUID playerUUID, Object originalName, ReplacedName replacedName) {
+		if (entriesByLine.computeIfAbsent(line, key -> new LineEntries()).names.put(new Key(playerUUID, originalName), replacedName) == null) {
+			if (size.incrementAndGet() > maxSize) {
+				evict();
+			}
+		}
+	}
+	
+	/**
+	 * Returns false if an update of the names of the line for the player was already pending.
+	 */
+	public boolean addPendingUpdate(Object line, UUID playerUUID) {
+		return entriesByLine.computeIfAbsent(line, key -> new LineEntries()).pendingUpdates.add(playerUUID);
+	}
+	
+	public void removePendingUpdate(Object line, UUID playerUUID) {
+		LineEntries lineEntries = entriesByLine.get(line);
+		if (lineEntries != null) {
+			lineEntries.pendingUpdates.remove(playerUUID);
+		}
+	}
+	
+	public void clearLine(Object line) {
+		LineEntries lineEntries = entriesByLine.remove(line);
+		if (lineEntries != null) {
+			size.addAndGet(-lineEntries.names.size());
+		}
+	}
+	
+	public void clearPlayer(UUID playerUUID) {
+		for (LineEntries lineEntries : entriesByLine.values()) {
+			lineEntries.pendingUpdates.remove(playerUUID);
+			removeIf(lineEntries, entry -> entry.getKey().playerUUID.equals(playerUUID), Integer.MAX_VALUE);
+		}
+	}
+	
+	public void clear() {
+		entriesByLine.clear();
+		size.set(0);
+	}
+	
+	/**
+	 * Removes the expired names, then any other name until the cache is a quarter below its maximum size, so it is not done on every put.
+	 * Only one thread evicts at a time, the others keep adding.
+	 */
+	private void evict() {
+		if (!evicting.compareAndSet(false, true)) {
+			return;
+		}
+		
+		try {
+			long now = System.nanoTime();
+			for (LineEntries lineEntries : entriesByLine.values()) {
+				removeIf(lineEntries, entry -> entry.getValue().isExpired(now), Integer.MAX_VALUE);
+			}
+			
+			int targetSize = maxSize - maxSize / 4;
+			Iterator<LineEntries> iterator = entriesByLine.values().iterator();
+			while (size.get() > targetSize && iterator.hasNext()) {
+				removeIf(iterator.next(), entry -> true, size.get() - targetSize);
+			}
+		} finally {
+			evicting.set(false);
+		}
+	}
+	
+	private void removeIf(LineEntries lineEntries, Predicate<Entry<Key, ReplacedName>> filter, int maxRemovals) {
+		Iterator<Entry<Key, ReplacedName>> iterator = lineEntries.names.entrySet().iterator();
+		int removals = 0;
+		
+		while (removals < maxRemovals && iterator.hasNext()) {
+			Entry<Key, ReplacedName> entry = iterator.next();
+			if (filter.test(entry) && lineEntries.names.remove(entry.getKey(), entry.getValue())) {
+				size.decrementAndGet();
+				removals++;
+			}
+		}
+	}
+	
+	
+	public static class ReplacedName {
+		
+		private final Object nmsObject;
+		private final WrappedWatchableObject watchableObject;
+		private final long expiration;
+		
+		/**
+		 * The watchable object is created once, then it's only copied into the packets.
+		 */
+		public ReplacedName(Object nmsObject, WrappedWatchableObject watchableObject, long expirationNanos) {
+			this.nmsObject = nmsObject;
+			this.watchableObject = watchableObject;
+			this.expiration = expirationNanos > 0 ? System.nanoTime() + expirationNanos : Long.MIN_VALUE;
+		}
+		
+		public Object getNMSObject() {
+			return nmsObject;
+		}
+		
+		public WrappedWatchableObject getWatchableObject() {
+			return watchableObject;
+		}
+		
+		private boolean isExpired(long now) {
+			return expiration == Long.MIN_VALUE || now - expiration > 0;
+		}
+		
+	}
+	
+	
+	private static class LineEntries {
+		
+		private final Map<Key, ReplacedName> names = new ConcurrentHashMap<>();
+		private final Set<UUID> pendingUpdates = Collections.newSetFromMap(new ConcurrentHashMap<>());
+		
+	}
+	
+	
+	private static class Key {
+		
+		private final UUID playerUUID;
+		private final Object originalName;
+		
+		private Key(UUID playerUUID, Object originalName) {
+			this.playerUUID = playerUUID;
+			this.originalName = originalName;
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * playerUUID.hashCode() + System.identityHashCode(originalName);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return this.originalName == other.originalName && this.playerUUID.equals(other.playerUUID);
+		}
+		
+	}
+
+}
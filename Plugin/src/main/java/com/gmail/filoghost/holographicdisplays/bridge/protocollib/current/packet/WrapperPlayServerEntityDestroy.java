@@ -38,7 +38,7 @@ public class WrapperPlayServerEntityDestroy extends AbstractPacket {
 
     /**
      * Set the entities that will be destroyed.
-     * @param value - new value.
+     * @param entities - new value.
     */
     public void setEntities(int[] entities) {
         handle.getIntegerArrays().write(0, entities);
@@ -46,12 +46,20 @@ public class WrapperPlayServerEntityDestroy extends AbstractPacket {
 
     /**
      * Set the entities that will be destroyed.
-     * @param value - new value.
+     * @param entities - new value.
     */
     public void setEntities(List<Integer> entities) {
         setEntities(Ints.toArray(entities));
     }
 
+    /**
+     * Set the entities that will be destroyed, for 1.17.1 and later.
+     * @param entities - new value.
+    */
+    public void setEntitiesList(List<Integer> entities) {
+        handle.getIntLists().write(0, entities);
+    }
+
     public void setEntity_1_17(Integer entity) {
         if (handle.getIntegers().size() > 0) {
             handle.getIntegers().write(0, entity);
@@ -0,0 +1,70 @@
+/*
+ *  PacketWrapper - Contains wrappers for each packet in Minecraft.
+ *  Copyright (C) 2012 Kristian S. Stangeland
+ *
+ *  This program is free software; you can redistribute it and/or modify it under the terms of the
+ *  GNU Lesser General Public License as published by the Free Software Foundation; either version 2 of
+ *  the License, or (at your option) any later version.
+ *
+ *  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ *  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along with this program;
+ *  if not, write to the Free Software Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA
+ *  02111-1307 USA
+ */
+
+package com.gmail.filoghost.holographicdisplays.bridge.protocollib.current.packet;
+import com.comphenix.protocol.PacketType;
+import com.comphenix.protocol.events.PacketContainer;
+import com.gmail.filoghost.holographicdisplays.util.NMSVersion;
+
+public class WrapperPlayServerEntityTeleport extends AbstractPacket implements EntityRelatedPacketWrapper {
+	
+    public static final PacketType TYPE = PacketType.Play.Server.ENTITY_TELEPORT;
+    
+    private static final boolean DOUBLE_POSITION = NMSVersion.isGreaterEqualThan(NMSVersion.v1_9_R1);
+    
+    public WrapperPlayServerEntityTeleport() {
+        super(new PacketContainer(TYPE), TYPE);
+        handle.getModifier().writeDefaults();
+    }
+    
+    public WrapperPlayServerEntityTeleport(PacketContainer packet) {
+        super(packet, TYPE);
+    }
+    
+    /**
+     * Retrieve entity ID.
+     * @return The current EID
+    */
+    @Override
+    public int getEntityID() {
+        return handle.getIntegers().read(0);
+    }
+    
+    /**
+     * Set entity ID.
+     * @param value - new value.
+    */
+    public void setEntityID(int value) {
+        handle.getIntegers().write(0, value);
+    }
+    
+    /**
+     * Set the position of the entity.
+     * Before 1.9 the coordinates are fixed-point numbers, with 5 bits for the fractional part.
+    */
+    public void setPosition(double x, double y, double z) {
+        if (DOUBLE_POSITION) {
+            handle.getDoubles().write(0, x);
+            handle.getDoubles().write(1, y);
+            handle.getDoubles().write(2, z);
+        } else {
+            handle.getIntegers().write(1, (int) Math.floor(x * 32.0));
+            handle.getIntegers().write(2, (int) Math.floor(y * 32.0));
+            handle.getIntegers().write(3, (int) Math.floor(z * 32.0));
+        }
+    }
+}
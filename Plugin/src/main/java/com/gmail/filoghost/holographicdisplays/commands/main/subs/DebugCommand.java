@@ -28,6 +28,7 @@ import org.bukkit.entity.Entity;
 
 import com.gmail.filoghost.holographicdisplays.HolographicDisplays;
 import com.gmail.filoghost.holographicdisplays.api.Hologram;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.ProtocolLibHook;
 import com.gmail.filoghost.holographicdisplays.commands.Colors;
 import com.gmail.filoghost.holographicdisplays.commands.Strings;
 import com.gmail.filoghost.holographicdisplays.commands.main.HologramSubCommand;
@@ -97,6 +98,12 @@ public class DebugCommand extends HologramSubCommand {
 			sender.sendMessage(Colors.ERROR + "Couldn't find any loaded hologram (holograms may be in unloaded chunks).");
 		}
 		
+		if (HolographicDisplays.hasProtocolLibHook()) {
+			ProtocolLibHook protocolLibHook = HolographicDisplays.getProtocolLibHook();
+			sender.sendMessage(Colors.PRIMARY + "Packets: " + protocolLibHook.getSentPacketsCount() + " sent, " + protocolLibHook.getQueuedRequestsCount() + " spawn/destroy requests ("
+					+ protocolLibHook.getCoalescedRequestsCount() + " coalesced), " + protocolLibHook.getFlushesCount() + " player flushes");
+		}
+		
 	}
 
 	private String getHologramDisplayName(Hologram hologram) {
@@ -31,6 +31,7 @@ import com.gmail.filoghost.holographicdisplays.exception.HologramNotFoundExcepti
 import com.gmail.filoghost.holographicdisplays.exception.InvalidFormatException;
 import com.gmail.filoghost.holographicdisplays.exception.HologramLineParseException;
 import com.gmail.filoghost.holographicdisplays.exception.WorldNotFoundException;
+import com.gmail.filoghost.holographicdisplays.object.CraftHologram;
 import com.gmail.filoghost.holographicdisplays.object.NamedHologram;
 import com.gmail.filoghost.holographicdisplays.object.line.CraftHologramLine;
 import com.gmail.filoghost.holographicdisplays.util.ConsoleLogger;
@@ -68,6 +69,15 @@ public class HologramDatabase {
 		Location loc = LocationSerializer.locationFromString(locationString);
 		
 		NamedHologram hologram = new NamedHologram(loc, name);
+		
+		if (configSection.isSet("view-distance")) {
+			int viewDistance = configSection.getInt("view-distance");
+			if (viewDistance > 0) {
+				hologram.setViewDistance(viewDistance);
+			} else {
+				ConsoleLogger.log(Level.WARNING, "Hologram '" + name + "' has an invalid view distance, using the default.");
+			}
+		}
 
 		for (String line : lines) {
 			hologram.getLinesUnsafe().add(HologramLineParser.parseLine(hologram, line, false));
@@ -93,6 +103,7 @@ public class HologramDatabase {
 		ConfigurationSection hologramSection = getOrCreateSection(hologram.getName());		
 		hologramSection.set("location", LocationSerializer.locationToString(hologram.getLocation()));
 		hologramSection.set("lines", serializedLines);
+		hologramSection.set("view-distance", hologram.getViewDistance() != CraftHologram.DEFAULT_VIEW_DISTANCE ? hologram.getViewDistance() : null);
 	}
 	
 	public static Set<String> getHolograms() {
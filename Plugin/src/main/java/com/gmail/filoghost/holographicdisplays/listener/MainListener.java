@@ -30,8 +30,14 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 import org.bukkit.event.entity.ItemSpawnEvent;
 import org.bukkit.event.entity.ProjectileLaunchEvent;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.plugin.Plugin;
@@ -43,10 +49,15 @@ import com.gmail.filoghost.holographicdisplays.nms.interfaces.ItemPickupManager;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSManager;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSEntityBase;
 import com.gmail.filoghost.holographicdisplays.object.CraftHologram;
+import com.gmail.filoghost.holographicdisplays.object.CraftVisibilityManager;
+import com.gmail.filoghost.holographicdisplays.object.NamedHologram;
 import com.gmail.filoghost.holographicdisplays.object.NamedHologramManager;
+import com.gmail.filoghost.holographicdisplays.object.PlayerIndex;
 import com.gmail.filoghost.holographicdisplays.object.PluginHologram;
 import com.gmail.filoghost.holographicdisplays.object.PluginHologramManager;
+import com.gmail.filoghost.holographicdisplays.object.VirtualHologramTracker;
 import com.gmail.filoghost.holographicdisplays.object.line.CraftTouchSlimeLine;
+import com.gmail.filoghost.holographicdisplays.placeholder.RelativePlaceholder;
 import com.gmail.filoghost.holographicdisplays.util.ConsoleLogger;
 
 public class MainListener implements Listener, ItemPickupManager {
@@ -126,18 +137,21 @@ public class MainListener implements Listener, ItemPickupManager {
 		if (event.getRightClicked().getType() != EntityType.SLIME) {
 			return;
 		}
-			
-		Player clicker = event.getPlayer();
-		if (clicker.getGameMode() == GameMode.SPECTATOR) {
-			return;
-		}
 		
 		NMSEntityBase entityBase = nmsManager.getNMSEntityBase(event.getRightClicked());
 		if (entityBase == null || !(entityBase.getHologramLine() instanceof CraftTouchSlimeLine)) {
 			return;
 		}
 		
-		CraftTouchSlimeLine touchSlime = (CraftTouchSlimeLine) entityBase.getHologramLine();
+		handleSlimeTouch(event.getPlayer(), (CraftTouchSlimeLine) entityBase.getHologramLine());
+	}
+	
+	// Also called when a virtual hologram is clicked, since there is no entity on the server.
+	public void handleSlimeTouch(Player clicker, CraftTouchSlimeLine touchSlime) {
+		if (clicker.getGameMode() == GameMode.SPECTATOR) {
+			return;
+		}
+		
 		if (touchSlime.getTouchablePiece().getTouchHandler() == null || !touchSlime.getParent().getVisibilityManager().isVisibleTo(clicker)) {
 			return;
 		}
@@ -147,13 +161,13 @@ public class MainListener implements Listener, ItemPickupManager {
 			return;
 		}
 		
-		anticlickSpam.put(event.getPlayer(), System.currentTimeMillis());
+		anticlickSpam.put(clicker, System.currentTimeMillis());
 		
 		try {
-			touchSlime.getTouchablePiece().getTouchHandler().onTouch(event.getPlayer());
+			touchSlime.getTouchablePiece().getTouchHandler().onTouch(clicker);
 		} catch (Throwable t) {
 			Plugin plugin = touchSlime.getParent() instanceof PluginHologram ? ((PluginHologram) touchSlime.getParent()).getOwner() : HolographicDisplays.getInstance();
-			ConsoleLogger.log(Level.WARNING, "The plugin " + plugin.getName() + " generated an exception when the player " + event.getPlayer().getName() + " touched a hologram.", t);
+			ConsoleLogger.log(Level.WARNING, "The plugin " + plugin.getName() + " generated an exception when the player " + clicker.getName() + " touched a hologram.", t);
 		}
 	}
 	
@@ -169,8 +183,73 @@ public class MainListener implements Listener, ItemPickupManager {
 		}
 	}
 	
+	@EventHandler (priority = EventPriority.MONITOR)
+	public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+		if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+			PlayerIndex.markLoggingIn(event.getUniqueId());
+		}
+	}
+	
+	// Before the other plugins, they could change the visibility of the holograms on login or join.
+	@EventHandler (priority = EventPriority.LOWEST)
+	public void onLogin(PlayerLoginEvent event) {
+		PlayerIndex.assign(event.getPlayer());
+		CraftVisibilityManager.applyPendingVisibility(event.getPlayer());
+	}
+	
+	@EventHandler (priority = EventPriority.MONITOR)
+	public void onLoginResult(PlayerLoginEvent event) {
+		if (event.getResult() != PlayerLoginEvent.Result.ALLOWED) {
+			releasePlayerIndex(event.getPlayer());
+		}
+	}
+	
+	@EventHandler (priority = EventPriority.LOWEST)
+	public void onJoin(PlayerJoinEvent event) {
+		// Already assigned on login, unless the player logged in before the plugin was enabled.
+		PlayerIndex.assign(event.getPlayer());
+	}
+	
 	@EventHandler
 	public void onQuit(PlayerQuitEvent event) {
 		anticlickSpam.remove(event.getPlayer());
+		RelativePlaceholder.clearCachedReplacements(event.getPlayer());
+		if (HolographicDisplays.hasProtocolLibHook()) {
+			HolographicDisplays.getProtocolLibHook().clearRelativeNames(event.getPlayer());
+		}
+		VirtualHologramTracker.forgetPlayer(event.getPlayer());
+		releasePlayerIndex(event.getPlayer());
+	}
+	
+	private void releasePlayerIndex(Player player) {
+		int playerIndex = PlayerIndex.release(player);
+		if (playerIndex >= 0) {
+			for (NamedHologram hologram : NamedHologramManager.getHolograms()) {
+				hologram.getVisibilityManager().forgetPlayerIndex(playerIndex);
+			}
+			for (PluginHologram hologram : PluginHologramManager.getHolograms()) {
+				hologram.getVisibilityManager().forgetPlayerIndex(playerIndex);
+			}
+		}
+	}
+	
+	// The client removes all the entities when changing world or respawning.
+	@EventHandler (priority = EventPriority.MONITOR)
+	public void onWorldChange(PlayerChangedWorldEvent event) {
+		VirtualHologramTracker.forgetPlayer(event.getPlayer());
+		CraftVisibilityManager.invalidateVisibilityRules(event.getPlayer());
+	}
+	
+	@EventHandler (priority = EventPriority.MONITOR)
+	public void onRespawn(PlayerRespawnEvent event) {
+		VirtualHologramTracker.forgetPlayer(event.getPlayer());
+	}
+	
+	@EventHandler (priority = EventPriority.MONITOR, ignoreCancelled = true)
+	public void onTeleport(PlayerTeleportEvent event) {
+		// Updated before the next periodic update, the client may unload the holograms left behind.
+		if (event.getTo().getWorld() == event.getFrom().getWorld()) {
+			VirtualHologramTracker.updatePlayer(event.getPlayer(), event.getTo());
+		}
 	}
 }
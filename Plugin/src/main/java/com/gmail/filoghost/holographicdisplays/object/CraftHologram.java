@@ -17,11 +17,11 @@ package com.gmail.filoghost.holographicdisplays.object;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.inventory.ItemStack;
 
+import com.gmail.filoghost.holographicdisplays.HolographicDisplays;
 import com.gmail.filoghost.holographicdisplays.api.Hologram;
 import com.gmail.filoghost.holographicdisplays.disk.Configuration;
 import com.gmail.filoghost.holographicdisplays.object.line.CraftHologramLine;
@@ -36,6 +36,8 @@ import com.gmail.filoghost.holographicdisplays.util.Validator;
  */
 public class CraftHologram implements Hologram {
 	
+	public static final int DEFAULT_VIEW_DISTANCE = 64;
+	
 	// Position variables.
 	private World world;
 	private double x, y, z;
@@ -45,8 +47,11 @@ public class CraftHologram implements Hologram {
 	private final List<CraftHologramLine> lines;
 	
 	private CraftVisibilityManager visibilityManager;
+	private final boolean virtual;
+	private int viewDistance;
 	private boolean allowPlaceholders;
 	private long creationTimestamp;
+	private boolean registered;
 	private boolean deleted;
 	
 	public CraftHologram(Location location) {
@@ -54,13 +59,28 @@ public class CraftHologram implements Hologram {
 		updateLocation(location.getWorld(), location.getX(), location.getY(), location.getZ());
 		
 		lines = new ArrayList<>();
+		viewDistance = DEFAULT_VIEW_DISTANCE;
 		allowPlaceholders = false;
 		creationTimestamp = System.currentTimeMillis();
 		visibilityManager = new CraftVisibilityManager(this);
+		
+		// Decided once, the lines of a hologram are all real entities or all virtual.
+		virtual = Configuration.virtualHolograms && HolographicDisplays.hasProtocolLibHook();
 	}
 	
-	public boolean isInChunk(Chunk chunk) {
-		return chunk.getWorld() == world && chunk.getX() == chunkX && chunk.getZ() == chunkZ;
+	/**
+	 * Called by the managers when the hologram is added, once fully created.
+	 */
+	void register() {
+		if (registered || deleted) {
+			return;
+		}
+		
+		registered = true;
+		HologramChunkIndex.add(this);
+		if (virtual) {
+			VirtualHologramTracker.track(this);
+		}
 	}
 	
 	@Override
@@ -88,15 +108,42 @@ public class CraftHologram implements Hologram {
 		return new Location(world, x, y, z);
 	}
 	
+	public int getChunkX() {
+		return chunkX;
+	}
+	
+	public int getChunkZ() {
+		return chunkZ;
+	}
+	
 	private void updateLocation(World world, double x, double y, double z) {
 		Validator.notNull(world, "world");
 		
+		int chunkX = Utils.floor(x) >> 4;
+		int chunkZ = Utils.floor(z) >> 4;
+		boolean chunkChanged = world != this.world || chunkX != this.chunkX || chunkZ != this.chunkZ;
+		
+		if (chunkChanged && registered) {
+			HologramChunkIndex.remove(this);
+		}
+		
 		this.world = world;
 		this.x = x;
 		this.y = y;
 		this.z = z;
-		chunkX = Utils.floor(x) >> 4;
-		chunkZ = Utils.floor(z) >> 4;
+		this.chunkX = chunkX;
+		this.chunkZ = chunkZ;
+		
+		if (chunkChanged && registered) {
+			HologramChunkIndex.add(this);
+		}
+	}
+	
+	/**
+	 * Virtual holograms have no entities in the world, they only exist as packets sent to the players.
+	 */
+	public boolean isVirtual() {
+		return virtual;
 	}
 	
 	@Override
@@ -109,6 +156,13 @@ public class CraftHologram implements Hologram {
 		if (!deleted) {
 			deleted = true;
 			clearLines();
+			visibilityManager.clearPendingVisibility();
+			if (registered) {
+				HologramChunkIndex.remove(this);
+				if (virtual) {
+					VirtualHologramTracker.untrack(this);
+				}
+			}
 		}
 	}
 	
@@ -167,7 +221,9 @@ public class CraftHologram implements Hologram {
 	public void removeLine(int index) {
 		Validator.isTrue(!deleted, "hologram already deleted");
 		
-		lines.remove(index).despawn();
+		CraftHologramLine line = lines.remove(index);
+		VirtualHologramTracker.onLineDespawn(line);
+		line.despawn();
 		refreshSingleLines();
 	}
 	
@@ -175,6 +231,7 @@ public class CraftHologram implements Hologram {
 		Validator.isTrue(!deleted, "hologram already deleted");
 		
 		lines.remove(line);
+		VirtualHologramTracker.onLineDespawn(line);
 		line.despawn();
 		refreshSingleLines();
 	}
@@ -182,6 +239,7 @@ public class CraftHologram implements Hologram {
 	@Override
 	public void clearLines() {
 		for (CraftHologramLine line : lines) {
+			VirtualHologramTracker.onLineDespawn(line);
 			line.despawn();
 		}
 		
@@ -220,6 +278,24 @@ public class CraftHologram implements Hologram {
 		return creationTimestamp;
 	}
 
+	@Override
+	public int getViewDistance() {
+		return viewDistance;
+	}
+
+	@Override
+	public void setViewDistance(int viewDistance) {
+		Validator.isTrue(viewDistance > 0, "viewDistance must be greater than 0");
+		if (this.viewDistance == viewDistance) {
+			return;
+		}
+		
+		this.viewDistance = viewDistance;
+		if (virtual) {
+			VirtualHologramTracker.onViewDistanceChange(this);
+		}
+	}
+
 	@Override
 	public boolean isAllowPlaceholders() {
 		return allowPlaceholders;
@@ -237,13 +313,13 @@ public class CraftHologram implements Hologram {
 	
 
 	public void refreshAll() {
-		if (world.isChunkLoaded(chunkX, chunkZ)) {
+		if (virtual || world.isChunkLoaded(chunkX, chunkZ)) {
 			spawnEntities();
 		}
 	}
 	
 	public void refreshSingleLines() {
-		if (world.isChunkLoaded(chunkX, chunkZ)) {
+		if (virtual || world.isChunkLoaded(chunkX, chunkZ)) {
 			
 			double currentY = this.y;
 			boolean first = true;
@@ -260,8 +336,10 @@ public class CraftHologram implements Hologram {
 				
 				if (line.isSpawned()) {
 					line.teleport(x, currentY, z);
+					VirtualHologramTracker.onLineTeleport(line);
 				} else {
 					line.spawn(world, x, currentY, z);
+					VirtualHologramTracker.onLineSpawn(line);
 					if (allowPlaceholders && line instanceof CraftTextLine) {
 						PlaceholdersManager.trackIfNecessary((CraftTextLine) line);
 					}
@@ -292,6 +370,7 @@ public class CraftHologram implements Hologram {
 			}
 			
 			line.spawn(world, x, currentY, z);
+			VirtualHologramTracker.onLineSpawn(line);
 			if (allowPlaceholders && line instanceof CraftTextLine) {
 				PlaceholdersManager.trackIfNecessary((CraftTextLine) line);
 			}
@@ -303,6 +382,7 @@ public class CraftHologram implements Hologram {
 	 */
 	public void despawnEntities() {
 		for (CraftHologramLine piece : lines) {
+			VirtualHologramTracker.onLineDespawn(piece);
 			piece.despawn();
 		}
 	}
@@ -323,6 +403,9 @@ public class CraftHologram implements Hologram {
 		if (this.world != world) {
 			despawnEntities();
 			refreshAll();
+			if (virtual) {
+				VirtualHologramTracker.onHologramMove(this);
+			}
 			return;
 		}
 		
@@ -344,6 +427,11 @@ public class CraftHologram implements Hologram {
 			}
 			
 			line.teleport(x, currentY, z);
+			VirtualHologramTracker.onLineTeleport(line);
+		}
+		
+		if (virtual) {
+			VirtualHologramTracker.onHologramMove(this);
 		}
 	}
 
@@ -14,25 +14,54 @@
  */
 package com.gmail.filoghost.holographicdisplays.object;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Map.Entry;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.logging.Level;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
 
 import com.gmail.filoghost.holographicdisplays.HolographicDisplays;
 import com.gmail.filoghost.holographicdisplays.api.VisibilityManager;
+import com.gmail.filoghost.holographicdisplays.util.ConsoleLogger;
 import com.gmail.filoghost.holographicdisplays.util.Validator;
 
 public class CraftVisibilityManager implements VisibilityManager {
+	
+	// Four bits for each player index: if the visibility is set for the player and its value,
+	// then if the visibility rule was checked for the player and its last result, kept until checked again.
+	private static final int BITS_PER_PLAYER = 4;
+	private static final int PLAYERS_PER_WORD = Long.SIZE / BITS_PER_PLAYER;
+	private static final int VISIBILITY_SET = 1;
+	private static final int VISIBLE = 2;
+	private static final int RULE_CHECKED = 4;
+	private static final int RULE_VISIBLE = 8;
+	private static final int ALL_BITS = VISIBILITY_SET | VISIBLE | RULE_CHECKED | RULE_VISIBLE;
+	
+	// The visibility set for the players logging in, before they get an index, applied when they get it.
+	private static final Map<UUID, Map<CraftVisibilityManager, Boolean>> pendingVisibility = new HashMap<>();
+	
+	// The visibility rules to check on the next tick, with the visibility the players had before.
+	private static final Map<CraftVisibilityManager, Map<Player, PendingRuleCheck>> pendingRuleChecks = new HashMap<>();
+	private static boolean ruleChecksScheduled;
 
 	private final CraftHologram hologram;
-	private Map<String, Boolean> playersVisibilityMap;
-	private boolean visibleByDefault;
-
-	private static final int VISIBILITY_DISTANCE_SQUARED = 64 * 64;
+	// Read by the packet listener from any thread, replaced with a copy when changed.
+	private volatile long[] playersVisibility;
+	private volatile boolean visibleByDefault;
+	private volatile Predicate<Player> visibilityRule;
+	// Increased when the rule is invalidated for a player, so that a result checked before is not cached. Only used on the main thread.
+	private int[] ruleGenerations;
 	
 	public CraftVisibilityManager(CraftHologram hologram) {
 		Validator.notNull(hologram, "hologram");
@@ -51,10 +80,16 @@ public class CraftVisibilityManager implements VisibilityManager {
 			
 			boolean oldVisibleByDefault = this.visibleByDefault;
 			this.visibleByDefault = visibleByDefault;
+			if (visibilityRule != null) {
+				// The rule is used instead of the default.
+				return;
+			}
+			
+			long[] playersVisibility = this.playersVisibility;
 			
 			for (Player player : Bukkit.getOnlinePlayers()) {
 				
-				if (playersVisibilityMap != null && playersVisibilityMap.containsKey(player.getName().toLowerCase())) {
+				if ((getPlayerVisibility(playersVisibility, PlayerIndex.get(player)) & VISIBILITY_SET) != 0) {
 					// Has a specific value set
 					continue;
 				}
@@ -74,16 +109,31 @@ public class CraftVisibilityManager implements VisibilityManager {
 	public void showTo(Player player) {
 		Validator.notNull(player, "player");
 		
-		boolean wasVisible = isVisibleTo(player);
+		boolean wasVisible = getKnownVisibility(player);
+		
+		setPlayersVisibility(Collections.singleton(player), VISIBILITY_SET | VISIBLE, VISIBILITY_SET | VISIBLE);
+		
+		if (!wasVisible) {
+			sendCreatePacketIfNear(player, hologram);
+		}
+	}
+	
+	@Override
+	public void showTo(Collection<? extends Player> players) {
+		Validator.notNull(players, "players");
 		
-		if (playersVisibilityMap == null) {
-			// Lazy initialization
-			playersVisibilityMap = new ConcurrentHashMap<>();
+		List<Player> newViewers = new ArrayList<>();
+		for (Player player : players) {
+			Validator.notNull(player, "player");
+			if (!getKnownVisibility(player)) {
+				newViewers.add(player);
+			}
 		}
 		
-		playersVisibilityMap.put(player.getName().toLowerCase(), true);
+		// The array is copied once for all the players.
+		setPlayersVisibility(players, VISIBILITY_SET | VISIBLE, VISIBILITY_SET | VISIBLE);
 		
-		if (!wasVisible) {
+		for (Player player : newViewers) {
 			sendCreatePacketIfNear(player, hologram);
 		}
 	}
@@ -93,16 +143,30 @@ public class CraftVisibilityManager implements VisibilityManager {
 	public void hideTo(Player player) {
 		Validator.notNull(player, "player");
 		
-		boolean wasVisible = isVisibleTo(player);
+		boolean wasVisible = getKnownVisibility(player);
+		
+		setPlayersVisibility(Collections.singleton(player), VISIBILITY_SET | VISIBLE, VISIBILITY_SET);
 		
-		if (playersVisibilityMap == null) {
-			// Lazy initialization
-			playersVisibilityMap = new ConcurrentHashMap<>();
+		if (wasVisible) {
+			sendDestroyPacketIfNear(player, hologram);
 		}
+	}
+	
+	@Override
+	public void hideTo(Collection<? extends Player> players) {
+		Validator.notNull(players, "players");
 		
-		playersVisibilityMap.put(player.getName().toLowerCase(), false);
+		List<Player> oldViewers = new ArrayList<>();
+		for (Player player : players) {
+			Validator.notNull(player, "player");
+			if (getKnownVisibility(player)) {
+				oldViewers.add(player);
+			}
+		}
 		
-		if (wasVisible) {
+		setPlayersVisibility(players, VISIBILITY_SET | VISIBLE, VISIBILITY_SET);
+		
+		for (Player player : oldViewers) {
 			sendDestroyPacketIfNear(player, hologram);
 		}
 	}
@@ -111,12 +175,38 @@ public class CraftVisibilityManager implements VisibilityManager {
 	public boolean isVisibleTo(Player player) {
 		Validator.notNull(player, "player");
 		
-		if (playersVisibilityMap != null) {
-
-			Boolean value = playersVisibilityMap.get(player.getName().toLowerCase());
-			if (value != null) {
-				return value;
+		int playerIndex = PlayerIndex.get(player);
+		if (playerIndex < 0) {
+			Boolean visible = getPendingVisibility(player);
+			if (visible != null) {
+				return visible;
+			}
+		}
+		
+		int visibility = getPlayerVisibility(playersVisibility, playerIndex);
+		if ((visibility & VISIBILITY_SET) != 0) {
+			return (visibility & VISIBLE) != 0;
+		}
+		
+		Predicate<Player> visibilityRule = this.visibilityRule;
+		if (visibilityRule != null) {
+			if ((visibility & RULE_CHECKED) != 0) {
+				return (visibility & RULE_VISIBLE) != 0;
+			}
+			
+			if (!Bukkit.isPrimaryThread()) {
+				// The rule is only checked on the main thread, meanwhile the last result is used (hidden if never checked).
+				boolean lastVisible = (visibility & RULE_VISIBLE) != 0;
+				if (playerIndex >= 0) {
+					scheduleRuleCheck(player, lastVisible, true);
+				}
+				return lastVisible;
 			}
+			
+			int ruleGeneration = getRuleGeneration(playerIndex);
+			boolean visible = checkVisibilityRule(visibilityRule, player);
+			cacheVisibilityRuleResult(visibilityRule, playerIndex, ruleGeneration, visible);
+			return visible;
 		}
 
 		return visibleByDefault;
@@ -126,60 +216,413 @@ public class CraftVisibilityManager implements VisibilityManager {
 	public void resetVisibility(Player player) {
 		Validator.notNull(player, "player");
 		
-		if (playersVisibilityMap == null) {
+		if (playersVisibility == null && PlayerIndex.get(player) >= 0) {
 			return;
 		}
 		
-		boolean wasVisible = isVisibleTo(player);
+		boolean wasVisible = getKnownVisibility(player);
 		
-		playersVisibilityMap.remove(player.getName().toLowerCase());
+		setPlayersVisibility(Collections.singleton(player), VISIBILITY_SET | VISIBLE, 0);
 		
-		if (visibleByDefault && !wasVisible) {
-			sendCreatePacketIfNear(player, hologram);
-			
-		} else if (!visibleByDefault && wasVisible) {
-			sendDestroyPacketIfNear(player, hologram);
-		}
+		sendPacketsIfChanged(player, wasVisible);
 	}
 	
 	@Override
 	public void resetVisibilityAll() {
-		if (playersVisibilityMap != null) {
+		long[] playersVisibility = this.playersVisibility;
+		if (playersVisibility != null) {
 			
 			// We need to refresh all the players
-			Set<String> playerNames = new HashSet<>(playersVisibilityMap.keySet());
+			for (Player player : Bukkit.getOnlinePlayers()) {
+				if ((getPlayerVisibility(playersVisibility, PlayerIndex.get(player)) & VISIBILITY_SET) != 0) {
+					resetVisibility(player);
+				}
+			}
+		}
+	}
+	
+	@Override
+	public Predicate<Player> getVisibilityRule() {
+		return visibilityRule;
+	}
+	
+	@Override
+	public void setVisibilityRule(Predicate<Player> visibilityRule) {
+		if (this.visibilityRule == visibilityRule) {
+			return;
+		}
+		
+		List<Player> players = new ArrayList<>(Bukkit.getOnlinePlayers());
+		boolean[] wereVisible = new boolean[players.size()];
+		for (int i = 0; i < wereVisible.length; i++) {
+			wereVisible[i] = getKnownVisibility(players.get(i));
+		}
+		
+		synchronized (this) {
+			this.visibilityRule = visibilityRule;
+			clearBits(RULE_CHECKED | RULE_VISIBLE);
 			
-			for (String playerName : playerNames) {
-				Player onlinePlayer = Bukkit.getPlayerExact(playerName);
-				if (onlinePlayer != null) {
-					resetVisibility(onlinePlayer);
+			// Until the new rule is checked, the players keep the visibility they had.
+			for (int i = 0; i < wereVisible.length; i++) {
+				int playerIndex = PlayerIndex.get(players.get(i));
+				if (wereVisible[i] && playerIndex >= 0) {
+					setPlayersVisibility(playerIndex, RULE_VISIBLE, RULE_VISIBLE);
 				}
 			}
+		}
+		
+		for (int i = 0; i < wereVisible.length; i++) {
+			scheduleRuleCheck(players.get(i), wereVisible[i], false);
+		}
+	}
+	
+	@Override
+	public void invalidateVisibilityRule(Player player) {
+		Validator.notNull(player, "player");
+		
+		if (visibilityRule == null) {
+			return;
+		}
+		
+		if (!Bukkit.isPrimaryThread()) {
+			Bukkit.getScheduler().runTask(HolographicDisplays.getInstance(), () -> invalidateVisibilityRule(player));
+			return;
+		}
+		
+		int playerIndex = PlayerIndex.get(player);
+		if (playerIndex < 0) {
+			return;
+		}
+		
+		boolean wasVisible = getKnownVisibility(player);
+		
+		// The last result is kept, it's still used until the rule is checked again on the next tick.
+		increaseRuleGeneration(playerIndex);
+		setPlayersVisibility(playerIndex, RULE_CHECKED, 0);
+		
+		scheduleRuleCheck(player, wasVisible, false);
+	}
+	
+	/**
+	 * Called when a player quits, before its index is assigned to another player.
+	 */
+	public synchronized void forgetPlayerIndex(int playerIndex) {
+		long[] playersVisibility = this.playersVisibility;
+		if (getPlayerVisibility(playersVisibility, playerIndex) != 0) {
+			long[] newPlayersVisibility = playersVisibility.clone();
+			setPlayerVisibility(newPlayersVisibility, playerIndex, ALL_BITS, 0);
+			this.playersVisibility = newPlayersVisibility;
+		}
+	}
+	
+	/**
+	 * Called when the player logs in, after the index is assigned.
+	 */
+	public static void applyPendingVisibility(Player player) {
+		Map<CraftVisibilityManager, Boolean> visibilityManagers;
+		synchronized (pendingVisibility) {
+			visibilityManagers = pendingVisibility.remove(player.getUniqueId());
+		}
+		
+		if (visibilityManagers == null) {
+			return;
+		}
+		
+		int playerIndex = PlayerIndex.get(player);
+		for (Entry<CraftVisibilityManager, Boolean> entry : visibilityManagers.entrySet()) {
+			CraftVisibilityManager visibilityManager = entry.getKey();
+			if (!visibilityManager.hologram.isDeleted()) {
+				// Nothing was sent to the player yet.
+				visibilityManager.setPlayersVisibility(playerIndex, VISIBILITY_SET | VISIBLE, entry.getValue() ? VISIBILITY_SET | VISIBLE : VISIBILITY_SET);
+			}
+		}
+	}
+	
+	/**
+	 * Called when a player changes world, or when requested through the API.
+	 */
+	public static void invalidateVisibilityRules(Player player) {
+		for (NamedHologram hologram : NamedHologramManager.getHolograms()) {
+			hologram.getVisibilityManager().invalidateVisibilityRule(player);
+		}
+		for (PluginHologram hologram : PluginHologramManager.getHolograms()) {
+			hologram.getVisibilityManager().invalidateVisibilityRule(player);
+		}
+	}
+	
+	private boolean checkVisibilityRule(Predicate<Player> visibilityRule, Player player) {
+		try {
+			return visibilityRule.test(player);
+		} catch (Throwable t) {
+			Plugin plugin = hologram instanceof PluginHologram ? ((PluginHologram) hologram).getOwner() : HolographicDisplays.getInstance();
+			ConsoleLogger.log(Level.WARNING, "The plugin " + plugin.getName() + " generated an exception when checking the visibility of a hologram for the player " + player.getName() + ".", t);
+			return visibleByDefault;
+		}
+	}
+	
+	private synchronized void cacheVisibilityRuleResult(Predicate<Player> visibilityRule, int playerIndex, int ruleGeneration, boolean visible) {
+		// The rule could have been replaced or invalidated while it was checked, for example by the rule itself.
+		if (this.visibilityRule == visibilityRule && playerIndex >= 0 && getRuleGeneration(playerIndex) == ruleGeneration) {
+			setPlayersVisibility(playerIndex, RULE_CHECKED | RULE_VISIBLE, visible ? RULE_CHECKED | RULE_VISIBLE : RULE_CHECKED);
+		}
+	}
+	
+	private int getRuleGeneration(int playerIndex) {
+		return ruleGenerations != null && playerIndex >= 0 && playerIndex < ruleGenerations.length ? ruleGenerations[playerIndex] : 0;
+	}
+	
+	private void increaseRuleGeneration(int playerIndex) {
+		if (ruleGenerations == null || playerIndex >= ruleGenerations.length) {
+			ruleGenerations = ruleGenerations == null ? new int[playerIndex + 1] : Arrays.copyOf(ruleGenerations, playerIndex + 1);
+		}
+		ruleGenerations[playerIndex]++;
+	}
+	
+	/**
+	 * Returns the visibility of the hologram for the player without checking the rule: the last result is used if not valid anymore.
+	 */
+	private boolean getKnownVisibility(Player player) {
+		int playerIndex = PlayerIndex.get(player);
+		if (playerIndex < 0) {
+			Boolean visible = getPendingVisibility(player);
+			return visible != null ? visible : visibilityRule == null && visibleByDefault;
+		}
+		
+		int visibility = getPlayerVisibility(playersVisibility, playerIndex);
+		if ((visibility & VISIBILITY_SET) != 0) {
+			return (visibility & VISIBLE) != 0;
+		} else if (visibilityRule != null) {
+			return (visibility & RULE_VISIBLE) != 0;
+		} else {
+			return visibleByDefault;
+		}
+	}
+	
+	/**
+	 * Checks the visibility again on the next tick, sending the packets if it changed.
+	 * If not forced, the rule is checked only for the players near the hologram, the others will check it when they get closer.
+	 */
+	private void scheduleRuleCheck(Player player, boolean wasVisible, boolean force) {
+		synchronized (pendingRuleChecks) {
+			PendingRuleCheck ruleCheck = pendingRuleChecks.computeIfAbsent(this, visibilityManager -> new HashMap<>())
+					.computeIfAbsent(player, p -> new PendingRuleCheck(wasVisible)); // The earliest visibility is kept
+			ruleCheck.force |= force;
+			
+			if (!ruleChecksScheduled) {
+				ruleChecksScheduled = true;
+				Bukkit.getScheduler().runTask(HolographicDisplays.getInstance(), CraftVisibilityManager::runRuleChecks);
+			}
+		}
+	}
+	
+	private static void runRuleChecks() {
+		Map<CraftVisibilityManager, Map<Player, PendingRuleCheck>> ruleChecks;
+		synchronized (pendingRuleChecks) {
+			ruleChecks = new HashMap<>(pendingRuleChecks);
+			pendingRuleChecks.clear();
+			ruleChecksScheduled = false;
+		}
+		
+		for (Entry<CraftVisibilityManager, Map<Player, PendingRuleCheck>> entry : ruleChecks.entrySet()) {
+			CraftVisibilityManager visibilityManager = entry.getKey();
+			if (visibilityManager.hologram.isDeleted()) {
+				continue;
+			}
 			
-			playersVisibilityMap.clear();
-			playersVisibilityMap = null;
+			for (Entry<Player, PendingRuleCheck> playerEntry : entry.getValue().entrySet()) {
+				Player player = playerEntry.getKey();
+				PendingRuleCheck ruleCheck = playerEntry.getValue();
+				if (player.isOnline()) {
+					visibilityManager.sendPacketsIfChanged(player, ruleCheck.wasVisible, ruleCheck.force);
+				}
+			}
 		}
 	}
 	
+	private void sendPacketsIfChanged(Player player, boolean wasVisible) {
+		sendPacketsIfChanged(player, wasVisible, false);
+	}
+	
+	private void sendPacketsIfChanged(Player player, boolean wasVisible, boolean force) {
+		if (hologram.isVirtual()) {
+			// The tracker checks the visibility only if the hologram is in range.
+			VirtualHologramTracker.updateVisibility(player, hologram);
+			return;
+		}
+		
+		if (!HolographicDisplays.hasProtocolLibHook() || !(force || isNear(player, hologram))) {
+			return;
+		}
+		
+		boolean visible = isVisibleTo(player);
+		
+		if (visible && !wasVisible) {
+			HolographicDisplays.getProtocolLibHook().sendCreateEntitiesPacket(player, hologram);
+		} else if (!visible && wasVisible) {
+			HolographicDisplays.getProtocolLibHook().sendDestroyEntitiesPacket(player, hologram);
+		}
+	}
+	
+	private Boolean getPendingVisibility(Player player) {
+		synchronized (pendingVisibility) {
+			Map<CraftVisibilityManager, Boolean> visibilityManagers = pendingVisibility.get(player.getUniqueId());
+			return visibilityManagers != null ? visibilityManagers.get(this) : null;
+		}
+	}
+	
+	/**
+	 * Called when the hologram is deleted, the players logging in would keep it in memory.
+	 */
+	public void clearPendingVisibility() {
+		synchronized (pendingVisibility) {
+			Iterator<Map<CraftVisibilityManager, Boolean>> iterator = pendingVisibility.values().iterator();
+			while (iterator.hasNext()) {
+				Map<CraftVisibilityManager, Boolean> visibilityManagers = iterator.next();
+				visibilityManagers.remove(this);
+				if (visibilityManagers.isEmpty()) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+	
+	private void setPendingVisibility(Player player, int visibility) {
+		synchronized (pendingVisibility) {
+			Map<CraftVisibilityManager, Boolean> visibilityManagers = pendingVisibility.get(player.getUniqueId());
+			
+			if ((visibility & VISIBILITY_SET) != 0) {
+				if (visibilityManagers == null) {
+					visibilityManagers = new HashMap<>();
+					pendingVisibility.put(player.getUniqueId(), visibilityManagers);
+				}
+				visibilityManagers.put(this, (visibility & VISIBLE) != 0);
+				
+			} else if (visibilityManagers != null) {
+				visibilityManagers.remove(this);
+				if (visibilityManagers.isEmpty()) {
+					pendingVisibility.remove(player.getUniqueId());
+				}
+			}
+		}
+	}
+	
+	private static int getPlayerVisibility(long[] playersVisibility, int playerIndex) {
+		if (playersVisibility == null || playerIndex < 0 || playerIndex / PLAYERS_PER_WORD >= playersVisibility.length) {
+			return 0;
+		}
+		
+		return (int) (playersVisibility[playerIndex / PLAYERS_PER_WORD] >>> (playerIndex % PLAYERS_PER_WORD * BITS_PER_PLAYER)) & ALL_BITS;
+	}
+	
+	private synchronized void clearBits(int mask) {
+		long[] playersVisibility = this.playersVisibility;
+		if (playersVisibility == null) {
+			return;
+		}
+		
+		long[] newPlayersVisibility = playersVisibility.clone();
+		for (int playerIndex = 0; playerIndex < newPlayersVisibility.length * PLAYERS_PER_WORD; playerIndex++) {
+			setPlayerVisibility(newPlayersVisibility, playerIndex, mask, 0);
+		}
+		this.playersVisibility = newPlayersVisibility;
+	}
+	
+	private synchronized void setPlayersVisibility(int playerIndex, int mask, int visibility) {
+		long[] playersVisibility = this.playersVisibility;
+		int length = playerIndex / PLAYERS_PER_WORD + 1;
+		long[] newPlayersVisibility;
+		
+		if (playersVisibility == null) {
+			newPlayersVisibility = new long[length];
+		} else {
+			newPlayersVisibility = Arrays.copyOf(playersVisibility, Math.max(playersVisibility.length, length));
+		}
+		
+		setPlayerVisibility(newPlayersVisibility, playerIndex, mask, visibility);
+		this.playersVisibility = newPlayersVisibility;
+	}
+	
+	private synchronized void setPlayersVisibility(Collection<? extends Player> players, int mask, int visibility) {
+		int[] playerIndexes = new int[players.size()];
+		int maxPlayerIndex = -1;
+		int i = 0;
+		
+		for (Player player : players) {
+			playerIndexes[i] = PlayerIndex.get(player);
+			maxPlayerIndex = Math.max(maxPlayerIndex, playerIndexes[i]);
+			
+			if (playerIndexes[i] < 0 && (mask & VISIBILITY_SET) != 0 && PlayerIndex.isLoggingIn(player)) {
+				// The visibility of the players that already quit is discarded.
+				setPendingVisibility(player, visibility);
+			}
+			i++;
+		}
+		
+		if (maxPlayerIndex < 0) {
+			return;
+		}
+		
+		// The array is never changed after being published, the readers could be using it.
+		long[] playersVisibility = this.playersVisibility;
+		int length = maxPlayerIndex / PLAYERS_PER_WORD + 1;
+		long[] newPlayersVisibility;
+		
+		if (playersVisibility == null) {
+			newPlayersVisibility = new long[length];
+		} else {
+			newPlayersVisibility = Arrays.copyOf(playersVisibility, Math.max(playersVisibility.length, length));
+		}
+		
+		for (int playerIndex : playerIndexes) {
+			if (playerIndex >= 0) {
+				setPlayerVisibility(newPlayersVisibility, playerIndex, mask, visibility);
+			}
+		}
+		
+		this.playersVisibility = newPlayersVisibility;
+	}
+	
+	private static void setPlayerVisibility(long[] playersVisibility, int playerIndex, int mask, int visibility) {
+		int wordIndex = playerIndex / PLAYERS_PER_WORD;
+		int shift = playerIndex % PLAYERS_PER_WORD * BITS_PER_PLAYER;
+		playersVisibility[wordIndex] = (playersVisibility[wordIndex] & ~((long) mask << shift)) | ((long) visibility << shift);
+	}
+	
 	private static void sendCreatePacketIfNear(Player player, CraftHologram hologram) {
-		if (HolographicDisplays.hasProtocolLibHook() && isNear(player, hologram)) {
+		if (hologram.isVirtual()) {
+			VirtualHologramTracker.updateVisibility(player, hologram);
+		} else if (HolographicDisplays.hasProtocolLibHook() && isNear(player, hologram)) {
 			HolographicDisplays.getProtocolLibHook().sendCreateEntitiesPacket(player, hologram);
 		}
 	}
 	
 	private static void sendDestroyPacketIfNear(Player player, CraftHologram hologram) {
-		if (HolographicDisplays.hasProtocolLibHook() && isNear(player, hologram)) {
+		if (hologram.isVirtual()) {
+			VirtualHologramTracker.updateVisibility(player, hologram);
+		} else if (HolographicDisplays.hasProtocolLibHook() && isNear(player, hologram)) {
 			HolographicDisplays.getProtocolLibHook().sendDestroyEntitiesPacket(player, hologram);
 		}
 	}
 	
 	private static boolean isNear(Player player, CraftHologram hologram) {
-		return player.isOnline() && player.getWorld().equals(hologram.getWorld()) && player.getLocation().distanceSquared(hologram.getLocation()) < VISIBILITY_DISTANCE_SQUARED;
+		int viewDistance = hologram.getViewDistance();
+		return player.isOnline() && player.getWorld().equals(hologram.getWorld()) && player.getLocation().distanceSquared(hologram.getLocation()) < viewDistance * viewDistance;
 	}
 
+	private static class PendingRuleCheck {
+		
+		private final boolean wasVisible;
+		private boolean force;
+		
+		private PendingRuleCheck(boolean wasVisible) {
+			this.wasVisible = wasVisible;
+		}
+		
+	}
+	
 	@Override
 	public String toString() {
-		return "CraftVisibilityManager [playersMap=" + playersVisibilityMap + ", visibleByDefault=" + visibleByDefault + "]";
+		return "CraftVisibilityManager [playersVisibility=" + Arrays.toString(playersVisibility) + ", visibleByDefault=" + visibleByDefault + ", visibilityRule=" + visibilityRule + "]";
 	}
 	
 }
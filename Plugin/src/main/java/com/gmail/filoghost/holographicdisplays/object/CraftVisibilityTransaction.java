@@ -0,0 +1,105 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.object;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.bukkit.entity.Player;
+
+import com.gmail.filoghost.holographicdisplays.api.Hologram;
+import com.gmail.filoghost.holographicdisplays.api.VisibilityTransaction;
+import com.gmail.filoghost.holographicdisplays.util.Validator;
+
+public class CraftVisibilityTransaction implements VisibilityTransaction {
+	
+	// The last visibility set for each hologram and player, the previous ones are replaced.
+	private final Map<CraftHologram, Map<Player, Boolean>> changes = new LinkedHashMap<>();
+	private boolean committed;
+
+	@Override
+	public void showTo(Hologram hologram, Player player) {
+		setVisible(hologram, player, true);
+	}
+
+	@Override
+	public void showTo(Hologram hologram, Collection<? extends Player> players) {
+		Validator.notNull(players, "players");
+		for (Player player : players) {
+			setVisible(hologram, player, true);
+		}
+	}
+
+	@Override
+	public void hideTo(Hologram hologram, Player player) {
+		setVisible(hologram, player, false);
+	}
+
+	@Override
+	public void hideTo(Hologram hologram, Collection<? extends Player> players) {
+		Validator.notNull(players, "players");
+		for (Player player : players) {
+			setVisible(hologram, player, false);
+		}
+	}
+	
+	private void setVisible(Hologram hologram, Player player, boolean visible) {
+		Validator.isTrue(!committed, "transaction already committed");
+		Validator.notNull(hologram, "hologram");
+		Validator.notNull(player, "player");
+		Validator.isTrue(hologram instanceof CraftHologram, "hologram not created by Holographic Displays");
+		
+		changes.computeIfAbsent((CraftHologram) hologram, key -> new LinkedHashMap<>()).put(player, visible);
+	}
+
+	@Override
+	public void commit() {
+		Validator.isTrue(!committed, "transaction already committed");
+		committed = true;
+		
+		// The packets are queued and sent to each player together on the next tick.
+		for (Entry<CraftHologram, Map<Player, Boolean>> entry : changes.entrySet()) {
+			CraftHologram hologram = entry.getKey();
+			if (hologram.isDeleted()) {
+				continue;
+			}
+			
+			List<Player> shownTo = new ArrayList<>();
+			List<Player> hiddenTo = new ArrayList<>();
+			
+			for (Entry<Player, Boolean> change : entry.getValue().entrySet()) {
+				if (change.getValue()) {
+					shownTo.add(change.getKey());
+				} else {
+					hiddenTo.add(change.getKey());
+				}
+			}
+			
+			if (!shownTo.isEmpty()) {
+				hologram.getVisibilityManager().showTo(shownTo);
+			}
+			if (!hiddenTo.isEmpty()) {
+				hologram.getVisibilityManager().hideTo(hiddenTo);
+			}
+		}
+		
+		changes.clear();
+	}
+	
+}
@@ -19,16 +19,23 @@ import java.util.Collection;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 
 import com.gmail.filoghost.holographicdisplays.HolographicDisplays;
 import com.gmail.filoghost.holographicdisplays.api.Hologram;
+import com.gmail.filoghost.holographicdisplays.api.VisibilityTransaction;
 import com.gmail.filoghost.holographicdisplays.api.internal.BackendAPI;
+import com.gmail.filoghost.holographicdisplays.api.placeholder.AsyncPlaceholderReplacer;
 import com.gmail.filoghost.holographicdisplays.api.placeholder.PlaceholderReplacer;
+import com.gmail.filoghost.holographicdisplays.api.placeholder.RelativePlaceholderReplacer;
 import com.gmail.filoghost.holographicdisplays.object.PluginHologram;
 import com.gmail.filoghost.holographicdisplays.object.PluginHologramManager;
+import com.gmail.filoghost.holographicdisplays.placeholder.AsyncPlaceholder;
 import com.gmail.filoghost.holographicdisplays.placeholder.Placeholder;
 import com.gmail.filoghost.holographicdisplays.placeholder.PlaceholdersRegister;
+import com.gmail.filoghost.holographicdisplays.placeholder.PluginRelativePlaceholder;
+import com.gmail.filoghost.holographicdisplays.placeholder.RelativePlaceholder;
 import com.gmail.filoghost.holographicdisplays.util.Validator;
 
 public class DefaultBackendAPI extends BackendAPI {
@@ -53,6 +60,39 @@ public class DefaultBackendAPI extends BackendAPI {
 		return PlaceholdersRegister.register(new Placeholder(plugin, textPlaceholder, refreshRate, replacer));
 	}
 
+	public boolean registerAsyncPlaceholder(Plugin plugin, String textPlaceholder, double refreshRate, double timeout, AsyncPlaceholderReplacer replacer) {
+		Validator.notNull(textPlaceholder, "textPlaceholder");
+		Validator.isTrue(refreshRate >= 0, "refreshRate should be positive");
+		Validator.isTrue(timeout > 0, "timeout should be greater than zero");
+		Validator.notNull(replacer, "replacer");
+		
+		return PlaceholdersRegister.register(new AsyncPlaceholder(plugin, textPlaceholder, refreshRate, timeout, replacer));
+	}
+
+	public boolean registerRelativePlaceholder(Plugin plugin, String textPlaceholder, double refreshRate, RelativePlaceholderReplacer replacer) {
+		Validator.notNull(plugin, "plugin");
+		Validator.notNull(textPlaceholder, "textPlaceholder");
+		Validator.isTrue(refreshRate >= 0, "refreshRate should be positive");
+		Validator.notNull(replacer, "replacer");
+		
+		return RelativePlaceholder.register(new PluginRelativePlaceholder(plugin, textPlaceholder, refreshRate, replacer));
+	}
+
+	public boolean unregisterRelativePlaceholder(Plugin plugin, String textPlaceholder) {
+		Validator.notNull(plugin, "plugin");
+		Validator.notNull(textPlaceholder, "textPlaceholder");
+		return RelativePlaceholder.unregister(plugin, textPlaceholder);
+	}
+
+	public VisibilityTransaction createVisibilityTransaction() {
+		return new CraftVisibilityTransaction();
+	}
+
+	public void invalidateVisibilityRules(Player player) {
+		Validator.notNull(player, "player");
+		CraftVisibilityManager.invalidateVisibilityRules(player);
+	}
+
 	public boolean isHologramEntity(Entity bukkitEntity) {
 		Validator.notNull(bukkitEntity, "bukkitEntity");
 		return HolographicDisplays.getNMSManager().isNMSEntityBase(bukkitEntity);
@@ -0,0 +1,80 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.object;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.World;
+
+/**
+ * All the holograms by world and chunk, to find the ones in a chunk without checking all of them.
+ * Updated by the holograms themselves when created, moved or deleted.
+ */
+public class HologramChunkIndex {
+	
+	private static Map<World, Map<Long, List<CraftHologram>>> holograms = new HashMap<>();
+	
+	public static void add(CraftHologram hologram) {
+		holograms.computeIfAbsent(hologram.getWorld(), world -> new HashMap<>())
+			.computeIfAbsent(getChunkKey(hologram.getChunkX(), hologram.getChunkZ()), chunkKey -> new ArrayList<>())
+			.add(hologram);
+	}
+	
+	/**
+	 * Must be called before the location of the hologram changes, its current chunk is used to find it.
+	 */
+	public static void remove(CraftHologram hologram) {
+		Map<Long, List<CraftHologram>> worldHolograms = holograms.get(hologram.getWorld());
+		if (worldHolograms == null) {
+			return;
+		}
+		
+		long chunkKey = getChunkKey(hologram.getChunkX(), hologram.getChunkZ());
+		List<CraftHologram> chunkHolograms = worldHolograms.get(chunkKey);
+		if (chunkHolograms == null) {
+			return;
+		}
+		
+		chunkHolograms.remove(hologram);
+		if (chunkHolograms.isEmpty()) {
+			worldHolograms.remove(chunkKey);
+			if (worldHolograms.isEmpty()) {
+				holograms.remove(hologram.getWorld());
+			}
+		}
+	}
+	
+	/**
+	 * Returns the holograms in a chunk. The list must not be modified.
+	 */
+	public static List<CraftHologram> getHolograms(World world, int chunkX, int chunkZ) {
+		Map<Long, List<CraftHologram>> worldHolograms = holograms.get(world);
+		if (worldHolograms == null) {
+			return Collections.emptyList();
+		}
+		
+		List<CraftHologram> chunkHolograms = worldHolograms.get(getChunkKey(chunkX, chunkZ));
+		return chunkHolograms != null ? chunkHolograms : Collections.emptyList();
+	}
+	
+	private static long getChunkKey(int chunkX, int chunkZ) {
+		return (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+	}
+
+}
@@ -28,6 +28,7 @@ public class NamedHologramManager {
 	
 	public static void addHologram(NamedHologram hologram) {
 		pluginHolograms.add(hologram);
+		hologram.register();
 	}
 	
 	public static void removeHologram(NamedHologram hologram) {
@@ -55,9 +56,9 @@ public class NamedHologramManager {
 	}
 
 	public static void onChunkLoad(Chunk chunk) {
-		 // Load the holograms in that chunk.
-		for (NamedHologram hologram : pluginHolograms) {
-			if (hologram.isInChunk(chunk)) {
+		 // Load the holograms in that chunk, the virtual ones don't depend on the chunks.
+		for (CraftHologram hologram : getHologramsInChunk(chunk)) {
+			if (hologram instanceof NamedHologram && !hologram.isVirtual()) {
 				hologram.spawnEntities();
 			}
 		}
@@ -65,13 +66,18 @@ public class NamedHologramManager {
 	
 	public static void onChunkUnload(Chunk chunk) {
 		 // Hide the holograms in that chunk.
-		for (NamedHologram hologram : pluginHolograms) {
-			if (hologram.isInChunk(chunk)) {
+		for (CraftHologram hologram : getHologramsInChunk(chunk)) {
+			if (hologram instanceof NamedHologram && !hologram.isVirtual()) {
 				hologram.despawnEntities();
 			}
 		}
 	}
 	
+	private static List<CraftHologram> getHologramsInChunk(Chunk chunk) {
+		// Copied, the holograms could be moved while spawning or despawning the entities.
+		return new ArrayList<>(HologramChunkIndex.getHolograms(chunk.getWorld(), chunk.getX(), chunk.getZ()));
+	}
+	
 	public static void clearAll() {
 		List<NamedHologram> oldHolograms = new ArrayList<>(pluginHolograms);
 		pluginHolograms.clear();
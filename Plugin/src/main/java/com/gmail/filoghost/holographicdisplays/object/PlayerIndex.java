@@ -0,0 +1,87 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.object;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Assigns a small number to each online player, to store per-player data in arrays instead of maps.
+ * The numbers are assigned on login and reused after the player quits, so they only stay valid for the session.
+ */
+public class PlayerIndex {
+	
+	// Read from any thread, changed only on the main thread.
+	private static Map<UUID, Integer> indexes = new ConcurrentHashMap<>();
+	private static BitSet usedIndexes = new BitSet();
+	
+	// The players allowed by the pre-login, until they get an index. The connections closed before the login are removed after a while.
+	private static final long LOGIN_TIMEOUT_MILLIS = 60000;
+	private static Map<UUID, Long> loggingInPlayers = new ConcurrentHashMap<>();
+	
+	/**
+	 * Called from any thread when the pre-login of a player is allowed.
+	 */
+	public static void markLoggingIn(UUID uuid) {
+		long now = System.currentTimeMillis();
+		loggingInPlayers.values().removeIf(time -> now - time > LOGIN_TIMEOUT_MILLIS);
+		loggingInPlayers.put(uuid, now);
+	}
+	
+	/**
+	 * Returns true if the player is logging in and has no index yet.
+	 */
+	public static boolean isLoggingIn(Player player) {
+		return loggingInPlayers.containsKey(player.getUniqueId());
+	}
+	
+	public static void assign(Player player) {
+		loggingInPlayers.remove(player.getUniqueId());
+		if (indexes.containsKey(player.getUniqueId())) {
+			return;
+		}
+		
+		int index = usedIndexes.nextClearBit(0);
+		usedIndexes.set(index);
+		indexes.put(player.getUniqueId(), index);
+	}
+	
+	/**
+	 * Returns the index that was assigned to the player, or -1 if it was not online.
+	 */
+	public static int release(Player player) {
+		loggingInPlayers.remove(player.getUniqueId());
+		Integer index = indexes.remove(player.getUniqueId());
+		if (index == null) {
+			return -1;
+		}
+		
+		usedIndexes.clear(index);
+		return index;
+	}
+	
+	/**
+	 * Returns the index of the player, or -1 if the player is not online.
+	 */
+	public static int get(Player player) {
+		Integer index = indexes.get(player.getUniqueId());
+		return index != null ? index : -1;
+	}
+
+}
@@ -34,6 +34,7 @@ public class PluginHologramManager {
 	
 	public static void addHologram(PluginHologram hologram) {
 		pluginHolograms.add(hologram);
+		hologram.register();
 	}
 	
 	public static void removeHologram(PluginHologram hologram) {
@@ -61,8 +62,8 @@ public class PluginHologramManager {
 
 	public static void onChunkLoad(Chunk chunk) {
 		 // Load the holograms in that chunk.
-		for (PluginHologram hologram : pluginHolograms) {
-			if (hologram.isInChunk(chunk)) {
+		for (CraftHologram hologram : getHologramsInChunk(chunk)) {
+			if (hologram instanceof PluginHologram && !hologram.isVirtual()) {
 				hologram.spawnEntities();
 			}
 		}
@@ -70,13 +71,17 @@ public class PluginHologramManager {
 	
 	public static void onChunkUnload(Chunk chunk) {
 		 // Hide the holograms in that chunk.
-		for (PluginHologram hologram : pluginHolograms) {
-			if (hologram.isInChunk(chunk)) {
+		for (CraftHologram hologram : getHologramsInChunk(chunk)) {
+			if (hologram instanceof PluginHologram && !hologram.isVirtual()) {
 				hologram.despawnEntities();
 			}
 		}
 	}
 	
+	private static List<CraftHologram> getHologramsInChunk(Chunk chunk) {
+		return new ArrayList<>(HologramChunkIndex.getHolograms(chunk.getWorld(), chunk.getX(), chunk.getZ()));
+	}
+	
 	public static void clearAll() {
 		List<PluginHologram> oldHolograms = new ArrayList<>(pluginHolograms);
 		pluginHolograms.clear();
@@ -0,0 +1,418 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.object;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import com.gmail.filoghost.holographicdisplays.HolographicDisplays;
+import com.gmail.filoghost.holographicdisplays.api.line.HologramLine;
+import com.gmail.filoghost.holographicdisplays.bridge.protocollib.ProtocolLibHook;
+import com.gmail.filoghost.holographicdisplays.object.line.CraftHologramLine;
+import com.gmail.filoghost.holographicdisplays.object.line.CraftItemLine;
+import com.gmail.filoghost.holographicdisplays.object.line.CraftTextLine;
+
+/**
+ * Shows the virtual holograms to the players. Their entities are never added to the world, so the server doesn't track them:
+ * each player keeps the holograms shown to it, updated only when the player enters another chunk or when a hologram
+ * moves to another chunk, while the lines spawned, removed or moved are sent immediately to the players already seeing the hologram.
+ */
+public class VirtualHologramTracker {
+	
+	private static Map<CraftHologram, TrackedHologram> trackedHolograms = new LinkedHashMap<>();
+	private static Map<Player, TrackedPlayer> trackedPlayers = new HashMap<>();
+	private static List<Runnable> pendingPickups = new ArrayList<>();
+	// The text lines of the tracked holograms whose name changed since the last tick.
+	private static Set<CraftTextLine> changedNames = new HashSet<>();
+	
+	// The chunks searched around each player, the highest view distance of the holograms.
+	private static int maxViewDistanceChunks;
+	// How many holograms use each view distance, to lower the highest one when they are removed.
+	private static TreeMap<Integer, Integer> viewDistanceChunksCount = new TreeMap<>();
+	
+	// Reused to read the location of the players on each tick.
+	private static final Location playerLocation = new Location(null, 0, 0, 0);
+	
+	public static void start(Plugin plugin) {
+		Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, VirtualHologramTracker::tick, 1L, 1L);
+	}
+	
+	public static void track(CraftHologram hologram) {
+		TrackedHologram trackedHologram = new TrackedHologram(hologram);
+		trackedHolograms.put(hologram, trackedHologram);
+		addViewDistance(trackedHologram.viewDistanceChunks);
+		
+		// The lines already spawned are sent with the hologram.
+		for (Entry<Player, TrackedPlayer> entry : trackedPlayers.entrySet()) {
+			update(entry.getKey(), entry.getValue(), hologram, trackedHologram);
+		}
+	}
+	
+	public static void untrack(CraftHologram hologram) {
+		TrackedHologram trackedHologram = trackedHolograms.remove(hologram);
+		if (trackedHologram == null) {
+			return;
+		}
+		
+		removeViewDistance(trackedHologram.viewDistanceChunks);
+		
+		for (Player viewer : trackedHologram.viewers) {
+			trackedPlayers.get(viewer).shownHolograms.remove(hologram);
+		}
+	}
+	
+	/**
+	 * Called after the hologram is teleported, the players are checked again only if it changed chunk.
+	 */
+	public static void onHologramMove(CraftHologram hologram) {
+		TrackedHologram trackedHologram = trackedHolograms.get(hologram);
+		if (trackedHologram == null || trackedHologram.isInChunk(hologram)) {
+			return;
+		}
+		
+		trackedHologram.setChunk(hologram);
+		updateHologram(hologram, trackedHologram);
+	}
+	
+	public static void onViewDistanceChange(CraftHologram hologram) {
+		TrackedHologram trackedHologram = trackedHolograms.get(hologram);
+		if (trackedHologram != null) {
+			removeViewDistance(trackedHologram.viewDistanceChunks);
+			trackedHologram.viewDistanceChunks = getViewDistanceChunks(hologram);
+			addViewDistance(trackedHologram.viewDistanceChunks);
+			updateHologram(hologram, trackedHologram);
+		}
+	}
+	
+	public static void onLineSpawn(CraftHologramLine line) {
+		TrackedHologram trackedHologram = trackedHolograms.get(line.getParent());
+		if (trackedHologram == null) {
+			return;
+		}
+		
+		for (Player viewer : trackedHologram.viewers) {
+			getProtocolLibHook().sendCreateEntitiesPacket(viewer, line);
+		}
+	}
+	
+	/**
+	 * Must be called before the entities are removed, their IDs are needed to destroy them.
+	 */
+	public static void onLineDespawn(CraftHologramLine line) {
+		TrackedHologram trackedHologram = trackedHolograms.get(line.getParent());
+		if (trackedHologram == null || !line.isSpawned()) {
+			return;
+		}
+		
+		for (Player viewer : trackedHologram.viewers) {
+			getProtocolLibHook().sendDestroyEntitiesPacket(viewer, line);
+		}
+	}
+	
+	/**
+	 * Sends the line again, when its entities change. The current entities are destroyed immediately,
+	 * while the spawn packets are created on the next tick: it can be called before changing the line.
+	 */
+	public static void onLineChange(CraftHologramLine line) {
+		TrackedHologram trackedHologram = trackedHolograms.get(line.getParent());
+		if (trackedHologram == null || !line.isSpawned()) {
+			return;
+		}
+		
+		for (Player viewer : trackedHologram.viewers) {
+			getProtocolLibHook().sendDestroyEntitiesPacket(viewer, line);
+			getProtocolLibHook().sendCreateEntitiesPacket(viewer, line);
+		}
+	}
+	
+	public static void onLineTeleport(CraftHologramLine line) {
+		TrackedHologram trackedHologram = trackedHolograms.get(line.getParent());
+		if (trackedHologram == null) {
+			return;
+		}
+		
+		for (Player viewer : trackedHologram.viewers) {
+			getProtocolLibHook().sendTeleportPacket(viewer, line);
+		}
+	}
+	
+	/**
+	 * Called after the custom name of a line changes, from the line or its placeholders: it's sent on the next tick.
+	 */
+	public static void onLineNameChange(HologramLine line) {
+		if (line instanceof CraftTextLine && trackedHolograms.containsKey(line.getParent())) {
+			changedNames.add((CraftTextLine) line);
+		}
+	}
+	
+	/**
+	 * Shows or hides the hologram to the player, after its visibility has changed.
+	 */
+	public static void updateVisibility(Player player, CraftHologram hologram) {
+		if (!Bukkit.isPrimaryThread()) {
+			Bukkit.getScheduler().runTask(HolographicDisplays.getInstance(), () -> updateVisibility(player, hologram));
+			return;
+		}
+		
+		TrackedHologram trackedHologram = trackedHolograms.get(hologram);
+		TrackedPlayer trackedPlayer = trackedPlayers.get(player);
+		
+		// Players not tracked yet will see the hologram on the next tick.
+		if (trackedHologram != null && trackedPlayer != null) {
+			update(player, trackedPlayer, hologram, trackedHologram);
+		}
+	}
+	
+	public static void updatePlayer(Player player, Location location) {
+		TrackedPlayer trackedPlayer = trackedPlayers.get(player);
+		if (trackedPlayer == null) {
+			trackedPlayer = new TrackedPlayer();
+			trackedPlayers.put(player, trackedPlayer);
+		} else if (trackedPlayer.isInChunk(location)) {
+			return;
+		}
+		
+		trackedPlayer.setChunk(location);
+		
+		// Copied, the holograms out of range are removed.
+		for (CraftHologram hologram : new ArrayList<>(trackedPlayer.shownHolograms)) {
+			update(player, trackedPlayer, hologram, trackedHolograms.get(hologram));
+		}
+		
+		for (int chunkX = trackedPlayer.chunkX - maxViewDistanceChunks; chunkX <= trackedPlayer.chunkX + maxViewDistanceChunks; chunkX++) {
+			for (int chunkZ = trackedPlayer.chunkZ - maxViewDistanceChunks; chunkZ <= trackedPlayer.chunkZ + maxViewDistanceChunks; chunkZ++) {
+				for (CraftHologram hologram : HologramChunkIndex.getHolograms(trackedPlayer.world, chunkX, chunkZ)) {
+					TrackedHologram trackedHologram = trackedHolograms.get(hologram);
+					if (trackedHologram != null && !trackedPlayer.shownHolograms.contains(hologram)) {
+						update(player, trackedPlayer, hologram, trackedHologram);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Sends again the holograms shown to the player.
+	 */
+	public static void resendHolograms(Player player) {
+		TrackedPlayer trackedPlayer = trackedPlayers.get(player);
+		if (trackedPlayer == null) {
+			return;
+		}
+		
+		for (CraftHologram hologram : trackedPlayer.shownHolograms) {
+			getProtocolLibHook().sendDestroyEntitiesPacket(player, hologram);
+			getProtocolLibHook().sendCreateEntitiesPacket(player, hologram);
+		}
+	}
+	
+	/**
+	 * Called when the client has removed all the entities, or when the player quits.
+	 */
+	public static void forgetPlayer(Player player) {
+		TrackedPlayer trackedPlayer = trackedPlayers.remove(player);
+		if (trackedPlayer == null) {
+			return;
+		}
+		
+		for (CraftHologram hologram : trackedPlayer.shownHolograms) {
+			trackedHolograms.get(hologram).viewers.remove(player);
+		}
+	}
+	
+	private static void updateHologram(CraftHologram hologram, TrackedHologram trackedHologram) {
+		for (Entry<Player, TrackedPlayer> entry : trackedPlayers.entrySet()) {
+			update(entry.getKey(), entry.getValue(), hologram, trackedHologram);
+		}
+	}
+	
+	private static void update(Player player, TrackedPlayer trackedPlayer, CraftHologram hologram, TrackedHologram trackedHologram) {
+		boolean shown = trackedPlayer.shownHolograms.contains(hologram);
+		boolean visible = isInViewDistance(trackedPlayer, hologram) && hologram.getVisibilityManager().isVisibleTo(player);
+		
+		if (visible && !shown) {
+			trackedPlayer.shownHolograms.add(hologram);
+			trackedHologram.viewers.add(player);
+			getProtocolLibHook().sendCreateEntitiesPacket(player, hologram);
+			
+		} else if (!visible && shown) {
+			trackedPlayer.shownHolograms.remove(hologram);
+			trackedHologram.viewers.remove(player);
+			getProtocolLibHook().sendDestroyEntitiesPacket(player, hologram);
+		}
+	}
+	
+	private static boolean isInViewDistance(TrackedPlayer trackedPlayer, CraftHologram hologram) {
+		if (trackedPlayer.world != hologram.getWorld()) {
+			return false;
+		}
+		
+		int viewDistanceChunks = getViewDistanceChunks(hologram);
+		return Math.abs(trackedPlayer.chunkX - hologram.getChunkX()) <= viewDistanceChunks
+			&& Math.abs(trackedPlayer.chunkZ - hologram.getChunkZ()) <= viewDistanceChunks;
+	}
+	
+	private static int getViewDistanceChunks(CraftHologram hologram) {
+		// Like the view distance of the server, it is rounded up to whole chunks.
+		return (hologram.getViewDistance() + 15) >> 4;
+	}
+	
+	private static void addViewDistance(int viewDistanceChunks) {
+		viewDistanceChunksCount.merge(viewDistanceChunks, 1, Integer::sum);
+		maxViewDistanceChunks = viewDistanceChunksCount.lastKey();
+	}
+	
+	private static void removeViewDistance(int viewDistanceChunks) {
+		Integer count = viewDistanceChunksCount.get(viewDistanceChunks);
+		if (count == 1) {
+			viewDistanceChunksCount.remove(viewDistanceChunks);
+		} else {
+			viewDistanceChunksCount.put(viewDistanceChunks, count - 1);
+		}
+		maxViewDistanceChunks = viewDistanceChunksCount.isEmpty() ? 0 : viewDistanceChunksCount.lastKey();
+	}
+	
+	private static void tick() {
+		if (trackedHolograms.isEmpty()) {
+			changedNames.clear();
+			return;
+		}
+		
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			updatePlayer(player, player.getLocation(playerLocation));
+		}
+		
+		for (CraftTextLine line : changedNames) {
+			sendChangedName(line);
+		}
+		changedNames.clear();
+		
+		for (Entry<CraftHologram, TrackedHologram> entry : trackedHolograms.entrySet()) {
+			if (!entry.getValue().viewers.isEmpty()) {
+				checkPickups(entry.getKey(), entry.getValue());
+			}
+		}
+		
+		// The pickup handlers could create or delete holograms, they are called after the iteration.
+		for (Runnable pickup : pendingPickups) {
+			pickup.run();
+		}
+		pendingPickups.clear();
+	}
+	
+	private static void sendChangedName(CraftTextLine line) {
+		TrackedHologram trackedHologram = trackedHolograms.get(line.getParent());
+		
+		// The line could have been removed meanwhile.
+		if (trackedHologram == null || !line.isSpawned()) {
+			return;
+		}
+		
+		for (Player viewer : trackedHologram.viewers) {
+			getProtocolLibHook().sendCustomNameMetadataPacket(viewer, line);
+		}
+	}
+	
+	private static void checkPickups(CraftHologram hologram, TrackedHologram trackedHologram) {
+		for (CraftHologramLine line : hologram.getLinesUnsafe()) {
+			if (!(line instanceof CraftItemLine) || !line.isSpawned() || ((CraftItemLine) line).getPickupHandler() == null) {
+				continue;
+			}
+			
+			CraftItemLine itemLine = (CraftItemLine) line;
+			Location itemLocation = itemLine.getNmsItem().getBukkitEntityNMS().getLocation();
+			
+			for (Player viewer : trackedHologram.viewers) {
+				if (viewer.getGameMode() != GameMode.SPECTATOR && isInPickupRange(viewer.getLocation(), itemLocation)) {
+					pendingPickups.add(() -> HolographicDisplays.getMainListener().handleItemLinePickup(viewer, itemLine.getPickupHandler(), hologram));
+				}
+			}
+		}
+	}
+	
+	private static boolean isInPickupRange(Location playerLocation, Location itemLocation) {
+		// The same area where a real item would be picked up.
+		return Math.abs(playerLocation.getX() - itemLocation.getX()) < 1.425
+			&& Math.abs(playerLocation.getZ() - itemLocation.getZ()) < 1.425
+			&& playerLocation.getY() >= itemLocation.getY() - 1.5
+			&& playerLocation.getY() < itemLocation.getY() + 0.75;
+	}
+	
+	private static ProtocolLibHook getProtocolLibHook() {
+		// Holograms are virtual only if ProtocolLib is hooked.
+		return HolographicDisplays.getProtocolLibHook();
+	}
+	
+	
+	private static class TrackedHologram {
+		
+		private final Set<Player> viewers = new HashSet<>();
+		
+		private World world;
+		private int chunkX, chunkZ;
+		private int viewDistanceChunks;
+		
+		private TrackedHologram(CraftHologram hologram) {
+			setChunk(hologram);
+			viewDistanceChunks = getViewDistanceChunks(hologram);
+		}
+		
+		private boolean isInChunk(CraftHologram hologram) {
+			return hologram.getWorld() == world && hologram.getChunkX() == chunkX && hologram.getChunkZ() == chunkZ;
+		}
+		
+		private void setChunk(CraftHologram hologram) {
+			world = hologram.getWorld();
+			chunkX = hologram.getChunkX();
+			chunkZ = hologram.getChunkZ();
+		}
+		
+	}
+	
+	
+	private static class TrackedPlayer {
+		
+		private final Set<CraftHologram> shownHolograms = new HashSet<>();
+		
+		private World world;
+		private int chunkX, chunkZ;
+		
+		private boolean isInChunk(Location location) {
+			return location.getWorld() == world && location.getBlockX() >> 4 == chunkX && location.getBlockZ() >> 4 == chunkZ;
+		}
+		
+		private void setChunk(Location location) {
+			world = location.getWorld();
+			chunkX = location.getBlockX() >> 4;
+			chunkZ = location.getBlockZ() >> 4;
+		}
+		
+	}
+
+}
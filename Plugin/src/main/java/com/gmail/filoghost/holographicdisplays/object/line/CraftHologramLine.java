@@ -84,7 +84,8 @@ public abstract class CraftHologramLine implements HologramLine {
 	}
 	
 	public boolean hasRelativePlaceholders() {
-		return getRelativePlaceholders() != null && !getRelativePlaceholders().isEmpty();
+		Collection<RelativePlaceholder> relativePlaceholders = getRelativePlaceholders();
+		return relativePlaceholders != null && !relativePlaceholders.isEmpty();
 	}
 	
 	public abstract int[] getEntitiesIDs();
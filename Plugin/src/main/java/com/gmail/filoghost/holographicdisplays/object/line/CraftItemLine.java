@@ -23,10 +23,12 @@ import com.gmail.filoghost.holographicdisplays.HolographicDisplays;
 import com.gmail.filoghost.holographicdisplays.api.handler.PickupHandler;
 import com.gmail.filoghost.holographicdisplays.api.handler.TouchHandler;
 import com.gmail.filoghost.holographicdisplays.api.line.ItemLine;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSEntityIndex;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSArmorStand;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSEntityBase;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSItem;
 import com.gmail.filoghost.holographicdisplays.object.CraftHologram;
+import com.gmail.filoghost.holographicdisplays.object.VirtualHologramTracker;
 import com.gmail.filoghost.holographicdisplays.util.Offsets;
 import com.gmail.filoghost.holographicdisplays.util.Validator;
 
@@ -55,6 +57,7 @@ public class CraftItemLine extends CraftTouchableLine implements ItemLine {
 		this.itemStack = itemStack;
 		
 		if (nmsItem != null) {
+			VirtualHologramTracker.onLineChange(this);
 			nmsItem.setItemStackNMS(itemStack);
 		}
 	}
@@ -86,8 +89,8 @@ public class CraftItemLine extends CraftTouchableLine implements ItemLine {
 		if (itemStack != null) {
 			double offset = getItemOffset();
 			
-			nmsItem = HolographicDisplays.getNMSManager().spawnNMSItem(world, x, y + offset, z, this, itemStack, HolographicDisplays.getMainListener());
-			nmsVehicle = HolographicDisplays.getNMSManager().spawnNMSArmorStand(world, x, y + offset, z, this, HolographicDisplays.hasProtocolLibHook());
+			nmsItem = HolographicDisplays.getNMSManager().spawnNMSItem(world, x, y + offset, z, this, itemStack, HolographicDisplays.getMainListener(), getParent().isVirtual());
+			nmsVehicle = HolographicDisplays.getNMSManager().spawnNMSArmorStand(world, x, y + offset, z, this, getParent().isVirtual());
 
 			nmsItem.setPassengerOfNMS(nmsVehicle);
 		}
@@ -99,11 +102,13 @@ public class CraftItemLine extends CraftTouchableLine implements ItemLine {
 		super.despawn();
 		
 		if (nmsVehicle != null) {
+			NMSEntityIndex.remove(nmsVehicle);
 			nmsVehicle.killEntityNMS();
 			nmsVehicle = null;
 		}
 		
 		if (nmsItem != null) {
+			NMSEntityIndex.remove(nmsItem);
 			nmsItem.killEntityNMS();
 			nmsItem = null;
 		}
@@ -116,7 +121,7 @@ public class CraftItemLine extends CraftTouchableLine implements ItemLine {
 		double offset = getItemOffset();
 		
 		if (nmsVehicle != null) {
-			nmsVehicle.setLocationNMS(x, y + offset, z, HolographicDisplays.hasProtocolLibHook());
+			nmsVehicle.setLocationNMS(x, y + offset, z);
 		}
 		
 		if (nmsItem != null) {
@@ -25,9 +25,12 @@ import org.bukkit.World;
 import com.gmail.filoghost.holographicdisplays.HolographicDisplays;
 import com.gmail.filoghost.holographicdisplays.api.handler.TouchHandler;
 import com.gmail.filoghost.holographicdisplays.api.line.TextLine;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSEntityIndex;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSArmorStand;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSNameable;
 import com.gmail.filoghost.holographicdisplays.object.CraftHologram;
+import com.gmail.filoghost.holographicdisplays.object.VirtualHologramTracker;
+import com.gmail.filoghost.holographicdisplays.placeholder.PlaceholderAPIRelativePlaceholder;
 import com.gmail.filoghost.holographicdisplays.placeholder.PlaceholdersManager;
 import com.gmail.filoghost.holographicdisplays.placeholder.RelativePlaceholder;
 import com.gmail.filoghost.holographicdisplays.util.Offsets;
@@ -35,7 +38,8 @@ import com.gmail.filoghost.holographicdisplays.util.Offsets;
 public class CraftTextLine extends CraftTouchableLine implements TextLine {
 
 	private String text;
-	private List<RelativePlaceholder> relativePlaceholders;
+	// Replaced and never modified, since it's read by the packet listener from any thread.
+	private volatile List<RelativePlaceholder> relativePlaceholders;
 	private NMSArmorStand nmsNameable;
 	
 	
@@ -66,8 +70,12 @@ public class CraftTextLine extends CraftTouchableLine implements TextLine {
 					PlaceholdersManager.untrack(this);
 				}
 			}
+			
+			VirtualHologramTracker.onLineNameChange(this);
 		}
 		
+		List<RelativePlaceholder> relativePlaceholders = null;
+		
 		if (text != null) {
 			for (RelativePlaceholder relativePlaceholder : RelativePlaceholder.getRegistry()) {
 				if (text.contains(relativePlaceholder.getTextPlaceholder())) {
@@ -77,12 +85,24 @@ public class CraftTextLine extends CraftTouchableLine implements TextLine {
 					relativePlaceholders.add(relativePlaceholder);
 				}
 			}
+			
+			if (PlaceholdersManager.isUsingPlaceholderAPI()) {
+				List<RelativePlaceholder> placeholderAPIPlaceholders = PlaceholderAPIRelativePlaceholder.find(text);
+				if (!placeholderAPIPlaceholders.isEmpty()) {
+					if (relativePlaceholders == null) {
+						relativePlaceholders = new ArrayList<>();
+					}
+					relativePlaceholders.addAll(placeholderAPIPlaceholders);
+				}
+			}
 		}
 		
 		// Deallocate the list if unused
 		if (relativePlaceholders != null && relativePlaceholders.isEmpty()) {
 			relativePlaceholders = null;
 		}
+		
+		this.relativePlaceholders = relativePlaceholders;
 	}
 	
 	@Override
@@ -99,7 +119,7 @@ public class CraftTextLine extends CraftTouchableLine implements TextLine {
 	public void spawn(World world, double x, double y, double z) {
 		super.spawn(world, x, y, z);
 			
-		nmsNameable = HolographicDisplays.getNMSManager().spawnNMSArmorStand(world, x, y + getTextOffset(), z, this, HolographicDisplays.hasProtocolLibHook());
+		nmsNameable = HolographicDisplays.getNMSManager().spawnNMSArmorStand(world, x, y + getTextOffset(), z, this, getParent().isVirtual());
 
 		if (text != null && !text.isEmpty()) {
 			nmsNameable.setCustomNameNMS(text);
@@ -112,8 +132,14 @@ public class CraftTextLine extends CraftTouchableLine implements TextLine {
 		super.despawn();
 		
 		if (nmsNameable != null) {
+			PlaceholdersManager.untrack(this);
+			NMSEntityIndex.remove(nmsNameable);
 			nmsNameable.killEntityNMS();
 			nmsNameable = null;
+			
+			if (HolographicDisplays.hasProtocolLibHook()) {
+				HolographicDisplays.getProtocolLibHook().clearRelativeNames(this);
+			}
 		}
 	}
 	
@@ -129,7 +155,7 @@ public class CraftTextLine extends CraftTouchableLine implements TextLine {
 		super.teleport(x, y, z);
 		
 		if (nmsNameable != null) {
-			nmsNameable.setLocationNMS(x, y + getTextOffset(), z, HolographicDisplays.hasProtocolLibHook());
+			nmsNameable.setLocationNMS(x, y + getTextOffset(), z);
 		}
 	}
 	
@@ -17,6 +17,7 @@ package com.gmail.filoghost.holographicdisplays.object.line;
 import org.bukkit.World;
 
 import com.gmail.filoghost.holographicdisplays.HolographicDisplays;
+import com.gmail.filoghost.holographicdisplays.nms.interfaces.NMSEntityIndex;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSArmorStand;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSEntityBase;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSSlime;
@@ -51,8 +52,8 @@ public class CraftTouchSlimeLine extends CraftHologramLine {
 		
 		double offset = getSlimeOffset();
 		
-		nmsSlime = HolographicDisplays.getNMSManager().spawnNMSSlime(world, x, y + offset, z, this);
-		nmsVehicle = HolographicDisplays.getNMSManager().spawnNMSArmorStand(world, x, y + offset, z, this, HolographicDisplays.hasProtocolLibHook());
+		nmsSlime = HolographicDisplays.getNMSManager().spawnNMSSlime(world, x, y + offset, z, this, getParent().isVirtual());
+		nmsVehicle = HolographicDisplays.getNMSManager().spawnNMSArmorStand(world, x, y + offset, z, this, getParent().isVirtual());
 		
 		nmsSlime.setPassengerOfNMS(nmsVehicle);
 	}
@@ -63,11 +64,13 @@ public class CraftTouchSlimeLine extends CraftHologramLine {
 		super.despawn();
 		
 		if (nmsSlime != null) {
+			NMSEntityIndex.remove(nmsSlime);
 			nmsSlime.killEntityNMS();
 			nmsSlime = null;
 		}
 		
 		if (nmsVehicle != null) {
+			NMSEntityIndex.remove(nmsVehicle);
 			nmsVehicle.killEntityNMS();
 			nmsVehicle = null;
 		}
@@ -80,7 +83,7 @@ public class CraftTouchSlimeLine extends CraftHologramLine {
 		double offset = getSlimeOffset();
 		
 		if (nmsVehicle != null) {
-			nmsVehicle.setLocationNMS(x, y + offset, z, HolographicDisplays.hasProtocolLibHook());
+			nmsVehicle.setLocationNMS(x, y + offset, z);
 		}
 		
 		if (nmsSlime != null) {
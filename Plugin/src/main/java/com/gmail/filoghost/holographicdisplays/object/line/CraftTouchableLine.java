@@ -18,6 +18,7 @@ import org.bukkit.World;
 
 import com.gmail.filoghost.holographicdisplays.api.handler.TouchHandler;
 import com.gmail.filoghost.holographicdisplays.object.CraftHologram;
+import com.gmail.filoghost.holographicdisplays.object.VirtualHologramTracker;
 
 /**
  * Useful class that implements TouchablePiece. The downside is that subclasses must extend this, and cannot extend other classes.
@@ -39,11 +40,13 @@ public abstract class CraftTouchableLine extends CraftHologramLine {
 		
 		if (touchHandler != null && touchSlime == null && world != null) {
 			// If the touch handler was null before and no entity has been spawned, spawn it now.
+			VirtualHologramTracker.onLineChange(this);
 			touchSlime = new CraftTouchSlimeLine(getParent(), this);
 			touchSlime.spawn(world, x, y + (getHeight() / 2.0 - touchSlime.getHeight() / 2.0), z);
 			
 		} else if (touchHandler == null && touchSlime != null) {
 			// Opposite case, the touch handler was not null and an entity was spawned, but now it's useless.
+			VirtualHologramTracker.onLineChange(this);
 			touchSlime.despawn();
 			touchSlime = null;
 		}
@@ -0,0 +1,166 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.placeholder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+
+import org.bukkit.plugin.Plugin;
+
+import com.gmail.filoghost.holographicdisplays.api.placeholder.AsyncPlaceholderReplacer;
+import com.gmail.filoghost.holographicdisplays.util.ConsoleLogger;
+
+/**
+ * A placeholder whose replacer runs on a worker thread. The main thread only publishes the last computed value,
+ * and at most one update for each placeholder is running at any time.
+ */
+public class AsyncPlaceholder extends Placeholder {
+	
+	private static final int MAX_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+	private static final int MAX_QUEUED_UPDATES = 256;
+	
+	private static ThreadPoolExecutor executor;
+	
+	private final AsyncPlaceholderReplacer asyncReplacer;
+	private final long refreshNanos;
+	private final long timeoutNanos;
+	
+	private final AtomicReference<Evaluation> runningEvaluation;
+	private volatile String completedReplacement;
+	private long nextEvaluationNanos;
+	
+	public AsyncPlaceholder(Plugin owner, String textPlaceholder, double refreshRate, double timeout, AsyncPlaceholderReplacer asyncReplacer) {
+		// Checked every tenth of second to publish the completed updates quickly, the replacer follows its own refresh rate.
+		super(owner, textPlaceholder, 0.1, null);
+		this.asyncReplacer = asyncReplacer;
+		this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshRate <= 0.1 ? 100 : (long) (refreshRate * 10.0) * 100);
+		this.timeoutNanos = (long) (timeout * TimeUnit.SECONDS.toNanos(1));
+		this.runningEvaluation = new AtomicReference<>();
+		this.nextEvaluationNanos = System.nanoTime();
+	}
+	
+	public AsyncPlaceholderReplacer getAsyncReplacer() {
+		return asyncReplacer;
+	}
+	
+	@Override
+	public void update() {
+		String completed = completedReplacement;
+		if (completed != null) {
+			setCurrentReplacement(completed);
+		}
+		
+		long now = System.nanoTime();
+		Evaluation running = runningEvaluation.get();
+		
+		if (running != null) {
+			if (!running.timedOut && now - running.startNanos > timeoutNanos) {
+				// The slot is freed only when the replacer returns, even if it ignores the interruption.
+				running.timedOut = true;
+				running.interrupt();
+				ConsoleLogger.log(Level.WARNING, "The placeholder " + getTextPlaceholder() + " registered by the plugin " + getOwner().getName() + " took too long to update and has been interrupted. Please contact the author of " + getOwner().getName());
+			}
+			return; // Never more than one update at a time.
+		}
+		
+		if (now - nextEvaluationNanos < 0) {
+			return;
+		}
+		
+		nextEvaluationNanos = now + refreshNanos;
+		Evaluation evaluation = new Evaluation(now);
+		runningEvaluation.set(evaluation);
+		
+		try {
+			getExecutor().execute(evaluation);
+		} catch (RejectedExecutionException e) {
+			// Too many updates queued, try again at the next refresh.
+			runningEvaluation.set(null);
+		}
+	}
+	
+	private static synchronized ThreadPoolExecutor getExecutor() {
+		if (executor == null) {
+			AtomicInteger threadCount = new AtomicInteger();
+			executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(MAX_QUEUED_UPDATES), runnable -> {
+				Thread thread = new Thread(runnable, "HolographicDisplays Placeholder Worker #" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+			executor.allowCoreThreadTimeOut(true);
+		}
+		return executor;
+	}
+	
+	public static synchronized void shutdownExecutor() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+	
+	
+	private class Evaluation implements Runnable {
+		
+		private final long startNanos;
+		private volatile boolean timedOut;
+		private Thread thread;
+		
+		private Evaluation(long startNanos) {
+			this.startNanos = startNanos;
+		}
+		
+		private synchronized void interrupt() {
+			// Not started yet if null, it will still run but its result is discarded.
+			if (thread != null) {
+				thread.interrupt();
+			}
+		}
+		
+		@Override
+		public void run() {
+			synchronized (this) {
+				thread = Thread.currentThread();
+			}
+			
+			try {
+				String replacement = asyncReplacer.update();
+				
+				// Discard the result if this update timed out in the meantime.
+				if (!timedOut) {
+					completedReplacement = replacement != null ? replacement : "null";
+				}
+			} catch (Throwable t) {
+				if (!timedOut) {
+					ConsoleLogger.log(Level.WARNING, "The placeholder " + getTextPlaceholder() + " registered by the plugin " + getOwner().getName() + " generated an exception while updating. Please contact the author of " + getOwner().getName(), t);
+				}
+			} finally {
+				synchronized (this) {
+					thread = null;
+					// The worker thread is reused, a late interruption must not reach the next task.
+					Thread.interrupted();
+				}
+				runningEvaluation.compareAndSet(this, null);
+			}
+		}
+		
+	}
+	
+}
@@ -21,14 +21,27 @@ public class CyclicPlaceholderReplacer implements PlaceholderReplacer {
 	String[] frames;
 	private int index;
 	
+	// The index of the frame returned by the last update.
+	private int currentFrame;
+	
 	public CyclicPlaceholderReplacer(String[] frames) {
 		this.frames = frames;
 		index = 0;
+		currentFrame = -1;
+	}
+	
+	public int getFramesCount() {
+		return frames.length;
+	}
+	
+	public int getCurrentFrame() {
+		return currentFrame;
 	}
 
 	@Override
 	public String update() {
 		String result = frames[index];
+		currentFrame = index;
 		
 		index++;
 		if (index >= frames.length) {
@@ -14,75 +14,209 @@
  */
 package com.gmail.filoghost.holographicdisplays.placeholder;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
-import com.gmail.filoghost.holographicdisplays.api.placeholder.PlaceholderReplacer;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSNameable;
+import com.gmail.filoghost.holographicdisplays.util.Utils;
 import com.gmail.filoghost.holographicdisplays.util.Validator;
 
+/**
+ * The data of a dynamic text, shared by all the entities displaying it: the text is rendered once and then set to each entity.
+ */
 public class DynamicLineData {
 	
-	private final NMSNameable entity;
+	// The text of the lines, before the placeholders are detected.
+	private final String text;
 	private final String originalName;
+	private final Set<NMSNameable> entities;
+	
+	// The original name compiled into literals and slots, with the placeholder of each slot.
+	private LineTemplate template;
+	private Placeholder[] slotPlaceholders;
+	
+	// The last values read from the placeholders, with the version of the placeholder they were read at.
+	private String[] slotValues;
+	private int[] slotVersions;
+	private String renderedName;
+	private Object renderedNameObject;
 	
-	private Set<Placeholder> placeholders;
-	private final Map<String, Placeholder> animations;
-	private final Map<String, PlaceholderReplacer> replacers;
+	// The PlaceholderAPI placeholders found in the values of the slots, like in the frames of an animation, with the version used by the last render.
+	private final Map<Placeholder, Integer> nestedPlaceholders = new IdentityHashMap<>();
 	
-	public DynamicLineData(NMSNameable entity, String originalName) {
-		Validator.notNull(entity, "entity");
+	// When the only placeholder is an animation, the name of each frame is rendered and converted to the NMS object only once.
+	private CyclicPlaceholderReplacer animation;
+	private String[] frameNames;
+	private Object[] frameNameObjects;
+	
+	public DynamicLineData(String text, String originalName) {
+		Validator.notNull(text, "text");
 		
-		this.entity = entity;
+		this.text = text;
 		this.originalName = originalName;
-		placeholders = new HashSet<>();
-		animations = new HashMap<>();
-		replacers = new HashMap<>();
+		this.entities = new HashSet<>();
+	}
+	
+	public String getText() {
+		return text;
 	}
 
-	public NMSNameable getEntity() {
-		return entity;
+	public Set<NMSNameable> getEntities() {
+		return entities;
 	}	
 
 	public String getOriginalName() {
 		return originalName;
 	}
 	
-	public void setPlaceholders(Set<Placeholder> placeholders) {
-		this.placeholders = placeholders;
+	public void setTemplate(LineTemplate template, Placeholder[] slotPlaceholders) {
+		Validator.isTrue(template.getSlotsCount() == slotPlaceholders.length, "slot placeholders must match the template slots");
+		
+		this.template = template;
+		this.slotPlaceholders = slotPlaceholders;
+		slotValues = new String[slotPlaceholders.length];
+		slotVersions = new int[slotPlaceholders.length];
+		Arrays.fill(slotVersions, -1);
+		renderedName = null;
+		renderedNameObject = null;
+		
+		animation = null;
+		frameNames = null;
+		frameNameObjects = null;
+		
+		Set<Placeholder> placeholders = Collections.newSetFromMap(new IdentityHashMap<>());
+		Collections.addAll(placeholders, slotPlaceholders);
+		if (placeholders.size() == 1) {
+			Placeholder placeholder = placeholders.iterator().next();
+			
+			if (placeholder.getReplacer() instanceof CyclicPlaceholderReplacer) {
+				animation = (CyclicPlaceholderReplacer) placeholder.getReplacer();
+				frameNames = new String[animation.getFramesCount()];
+				frameNameObjects = new Object[animation.getFramesCount()];
+			}
+		}
 	}
-
+	
+	/**
+	 * Returns the distinct placeholders used by the slots and by their values.
+	 */
 	public Set<Placeholder> getPlaceholders() {
+		Set<Placeholder> placeholders = Collections.newSetFromMap(new IdentityHashMap<>());
+		Collections.addAll(placeholders, slotPlaceholders);
+		placeholders.addAll(nestedPlaceholders.keySet());
 		return placeholders;
 	}
-
-	public Map<String, PlaceholderReplacer> getReplacers() {
-		return replacers;
+	
+	public boolean hasNestedPlaceholder(Placeholder placeholder) {
+		return nestedPlaceholders.containsKey(placeholder);
 	}
 	
-	public Map<String, Placeholder> getAnimations() {
-		return animations;
+	/**
+	 * Remembers the version of a placeholder found in the values of the slots, the line is rendered again when it changes.
+	 */
+	public void setNestedPlaceholderVersion(Placeholder placeholder, int version) {
+		nestedPlaceholders.put(placeholder, version);
 	}
-
-	@Override
-	public int hashCode() {
-		return entity.hashCode();
+	
+	/**
+	 * Returns true if the value of at least one slot contains the given character.
+	 */
+	public boolean slotValuesContain(char c) {
+		for (String slotValue : slotValues) {
+			if (slotValue != null && slotValue.indexOf(c) >= 0) {
+				return true;
+			}
+		}
+		return false;
 	}
-
-	@Override
-	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		DynamicLineData other = (DynamicLineData) obj;
-		return this.entity == other.entity;
+	
+	public void removePlaceholder(Placeholder placeholder) {
+		List<Placeholder> remaining = new ArrayList<>(slotPlaceholders.length);
+		
+		for (Placeholder slotPlaceholder : slotPlaceholders) {
+			if (slotPlaceholder != placeholder) {
+				remaining.add(slotPlaceholder);
+			}
+		}
+		
+		if (remaining.size() < slotPlaceholders.length) {
+			setTemplate(template.withoutSlot(placeholder.getTextPlaceholder()), remaining.toArray(new Placeholder[remaining.size()]));
+		}
+	}
+	
+	/**
+	 * Reads the current value of the slots whose placeholder changed since the last call.
+	 * @return true if at least one value changed
+	 */
+	public boolean updateSlotValues() {
+		boolean changed = false;
+		
+		for (int i = 0; i < slotPlaceholders.length; i++) {
+			Placeholder placeholder = slotPlaceholders[i];
+			
+			if (slotVersions[i] != placeholder.getVersion()) {
+				slotVersions[i] = placeholder.getVersion();
+				slotValues[i] = Utils.sanitize(placeholder.getCurrentReplacement());
+				changed = true;
+			}
+		}
+		
+		for (Entry<Placeholder, Integer> nested : nestedPlaceholders.entrySet()) {
+			if (nested.getValue() != nested.getKey().getVersion()) {
+				changed = true;
+			}
+		}
+		
+		return changed;
+	}
+	
+	public LineTemplate getTemplate() {
+		return template;
+	}
+	
+	public String[] getSlotValues() {
+		return slotValues;
+	}
+	
+	public String getRenderedName() {
+		return renderedName;
 	}
 	
+	// The NMS object of the rendered name, created once for all the entities.
+	public Object getRenderedNameObject() {
+		return renderedNameObject;
+	}
+	
+	public void setRenderedName(String renderedName, Object renderedNameObject) {
+		this.renderedName = renderedName;
+		this.renderedNameObject = renderedNameObject;
+	}
+	
+	/**
+	 * Returns the current frame of the animation, or -1 if the line is not an animation or the animation was never updated.
+	 */
+	public int getCurrentFrame() {
+		return animation != null ? animation.getCurrentFrame() : -1;
+	}
 	
+	public String getFrameName(int frame) {
+		return frameNames[frame];
+	}
+	
+	public Object getFrameNameObject(int frame) {
+		return frameNameObjects[frame];
+	}
+	
+	public void setFrameName(int frame, String name, Object nameObject) {
+		frameNames[frame] = name;
+		frameNameObjects[frame] = nameObject;
+	}
 	
 }
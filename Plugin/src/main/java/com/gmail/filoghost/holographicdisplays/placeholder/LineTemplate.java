@@ -0,0 +1,131 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.placeholder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A line of text compiled into literal segments and placeholder slots, so that it can be rendered
+ * in a single pass without replacing each placeholder separately.
+ */
+public class LineTemplate {
+
+	// Always one more than the slots: literals[i] comes before slots[i], the last one closes the line.
+	private final String[] literals;
+
+	// The text placeholder occupying each slot, something like {online}.
+	private final String[] slots;
+
+	private final int literalsLength;
+
+	private LineTemplate(String[] literals, String[] slots) {
+		this.literals = literals;
+		this.slots = slots;
+
+		int literalsLength = 0;
+		for (String literal : literals) {
+			literalsLength += literal.length();
+		}
+		this.literalsLength = literalsLength;
+	}
+
+	public int getSlotsCount() {
+		return slots.length;
+	}
+
+	public String getSlot(int index) {
+		return slots[index];
+	}
+
+	/**
+	 * Renders the line into the given buffer, which is cleared before use.
+	 * The values must be in the same order of the slots.
+	 */
+	public String render(StringBuilder buffer, String[] values) {
+		buffer.setLength(0);
+		buffer.ensureCapacity(literalsLength + slots.length * 16);
+
+		buffer.append(literals[0]);
+		for (int i = 0; i < slots.length; i++) {
+			buffer.append(values[i]);
+			buffer.append(literals[i + 1]);
+		}
+
+		return buffer.toString();
+	}
+
+	/**
+	 * Returns a copy of this template where the given text placeholder is no longer a slot, but part of the literals.
+	 */
+	public LineTemplate withoutSlot(String textPlaceholder) {
+		Builder builder = new Builder();
+		builder.appendLiteral(literals[0]);
+
+		for (int i = 0; i < slots.length; i++) {
+			if (slots[i].equals(textPlaceholder)) {
+				builder.appendLiteral(slots[i]);
+			} else {
+				builder.appendSlot(slots[i]);
+			}
+			builder.appendLiteral(literals[i + 1]);
+		}
+
+		return builder.build();
+	}
+
+	@Override
+	public String toString() {
+		return "LineTemplate [literals=" + literals.length + ", slots=" + slots.length + "]";
+	}
+
+
+	public static class Builder {
+
+		private final List<String> literals = new ArrayList<>();
+		private final List<String> slots = new ArrayList<>();
+		private final StringBuilder currentLiteral = new StringBuilder();
+		private final StringBuilder text = new StringBuilder();
+
+		public Builder appendLiteral(String literal) {
+			currentLiteral.append(literal);
+			text.append(literal);
+			return this;
+		}
+
+		public Builder appendSlot(String textPlaceholder) {
+			literals.add(currentLiteral.toString());
+			currentLiteral.setLength(0);
+			slots.add(textPlaceholder);
+			text.append(textPlaceholder);
+			return this;
+		}
+
+		/**
+		 * Returns the text appended so far, with the slots written as their text placeholders.
+		 */
+		public String getText() {
+			return text.toString();
+		}
+
+		public LineTemplate build() {
+			String[] literalsArray = literals.toArray(new String[literals.size() + 1]);
+			literalsArray[literals.size()] = currentLiteral.toString();
+			return new LineTemplate(literalsArray, slots.toArray(new String[slots.size()]));
+		}
+
+	}
+
+}
@@ -14,14 +14,10 @@
  */
 package com.gmail.filoghost.holographicdisplays.placeholder;
 
-import com.gmail.filoghost.holographicdisplays.HolographicDisplays;
-import com.gmail.filoghost.holographicdisplays.util.ConsoleLogger;
 import org.bukkit.plugin.Plugin;
 
 import com.gmail.filoghost.holographicdisplays.api.placeholder.PlaceholderReplacer;
 
-import java.util.logging.Level;
-
 public class Placeholder {
 	
 	// The plugin that owns this placeholder.
@@ -36,9 +32,10 @@ public class Placeholder {
 	// This is the current replacement for this placeholder.
 	private String currentReplacement;
 	
+	// Incremented every time the replacement changes.
+	private int version;
+	
 	private PlaceholderReplacer replacer;
-
-	private int nextUpdateTick = 0;
 	
 	public Placeholder(Plugin owner, String textPlaceholder, double refreshRate, PlaceholderReplacer replacer) {
 		this.owner = owner;
@@ -65,20 +62,22 @@ public class Placeholder {
 	}
 	
 	public String getCurrentReplacement() {
-		int currentTick = HolographicDisplays.getNMSManager().getCurrentTick();
-        if (currentTick >= nextUpdateTick) {
-            nextUpdateTick = currentTick + getTenthsToRefresh() * 2;
-			try {
-				update();
-			} catch (Throwable t) {
-				ConsoleLogger.log(Level.WARNING, "The placeholder " + getTextPlaceholder() + " registered by the plugin " + getOwner().getName() + " generated an exception while updating. Please contact the author of " + getOwner().getName(), t);
-			}
-		}
 		return currentReplacement;
 	}
 	
 	public void setCurrentReplacement(String replacement) {
-		this.currentReplacement = replacement != null ? replacement : "null";
+		if (replacement == null) {
+			replacement = "null";
+		}
+		
+		if (!replacement.equals(currentReplacement)) {
+			this.currentReplacement = replacement;
+			version++;
+		}
+	}
+	
+	public int getVersion() {
+		return version;
 	}
 	
 	public PlaceholderReplacer getReplacer() {
@@ -0,0 +1,84 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.placeholder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.bukkit.entity.Player;
+
+import com.gmail.filoghost.holographicdisplays.disk.Configuration;
+
+import me.clip.placeholderapi.PlaceholderAPI;
+
+/**
+ * A PlaceholderAPI placeholder of a relative expansion (configured in the config.yml), replaced for each player.
+ */
+public class PlaceholderAPIRelativePlaceholder extends RelativePlaceholder {
+	
+	public PlaceholderAPIRelativePlaceholder(String textPlaceholder) {
+		super(textPlaceholder);
+	}
+
+	@Override
+	public String getReplacement(Player player) {
+		return PlaceholderAPI.setPlaceholders(player, getTextPlaceholder());
+	}
+	
+	@Override
+	public long getRefreshNanos() {
+		return (long) (Configuration.placeholderAPIRelativeRefreshSeconds * 1000000000.0);
+	}
+	
+	@Override
+	public boolean isThreadSafe() {
+		// The expansions can use the Bukkit API.
+		return false;
+	}
+	
+	/**
+	 * Finds the placeholders of the relative expansions, following the same pattern of PlaceholderAPI.
+	 */
+	public static List<RelativePlaceholder> find(String text) {
+		List<RelativePlaceholder> found = null;
+		int openDelimiter = -1;
+		
+		for (int i = text.indexOf('%'); i >= 0; i = text.indexOf('%', i + 1)) {
+			if (openDelimiter < 0 || i == openDelimiter + 1) {
+				openDelimiter = i;
+				continue;
+			}
+			
+			int start = openDelimiter;
+			openDelimiter = -1;
+			
+			int underscore = text.indexOf('_', start + 1);
+			if (underscore <= start + 1 || underscore >= i) {
+				continue;
+			}
+			
+			if (Configuration.placeholderAPIRelativeExpansions.contains(text.substring(start + 1, underscore).toLowerCase())) {
+				if (found == null) {
+					found = new ArrayList<>();
+				}
+				found.add(new PlaceholderAPIRelativePlaceholder(text.substring(start, i + 1)));
+			}
+		}
+		
+		return found != null ? found : Collections.emptyList();
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.placeholder;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+import com.gmail.filoghost.holographicdisplays.util.Validator;
+
+/**
+ * An Aho-Corasick automaton that finds all the occurrences of a set of keywords with a single scan of the text.
+ * Keywords can be added and removed at any time: the trie is updated immediately, while the failure links
+ * are recomputed only once, before the next scan.
+ */
+public class PlaceholderAutomaton<T> {
+
+	private final Node<T> root;
+	private boolean linksOutdated;
+
+	public PlaceholderAutomaton() {
+		root = new Node<>(0);
+	}
+
+	public void put(String keyword, T value) {
+		Validator.notNull(value, "value");
+		Validator.isTrue(!keyword.isEmpty(), "keyword cannot be empty");
+
+		Node<T> node = root;
+		for (int i = 0; i < keyword.length(); i++) {
+			node = node.getOrCreateChild(keyword.charAt(i));
+		}
+
+		node.value = value;
+		linksOutdated = true;
+	}
+
+	public T remove(String keyword) {
+		Node<T> node = root;
+		for (int i = 0; i < keyword.length() && node != null; i++) {
+			node = node.getChild(keyword.charAt(i));
+		}
+
+		if (node == null || node.value == null) {
+			return null;
+		}
+
+		T oldValue = node.value;
+		node.value = null;
+		linksOutdated = true;
+		return oldValue;
+	}
+
+	/**
+	 * Reports every occurrence of the keywords in the text, including overlapping ones.
+	 * Occurrences are reported in order of end position.
+	 */
+	public void scan(String text, MatchHandler<T> handler) {
+		if (linksOutdated) {
+			rebuildLinks();
+		}
+
+		Node<T> node = root;
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			Node<T> next;
+
+			while ((next = node.getChild(c)) == null && node != root) {
+				node = node.failure;
+			}
+
+			node = next != null ? next : root;
+
+			for (Node<T> match = node.value != null ? node : node.output; match != null; match = match.output) {
+				handler.onMatch(i + 1 - match.depth, i + 1, match.value);
+			}
+		}
+	}
+
+	private void rebuildLinks() {
+		Queue<Node<T>> queue = new ArrayDeque<>();
+		root.failure = null;
+		root.output = null;
+		queue.add(root);
+
+		while (!queue.isEmpty()) {
+			Node<T> parent = queue.poll();
+
+			for (int i = 0; i < parent.childrenSize; i++) {
+				char c = parent.childrenKeys[i];
+				Node<T> child = parent.children[i];
+
+				Node<T> failure = parent.failure;
+				while (failure != null && failure.getChild(c) == null) {
+					failure = failure.failure;
+				}
+
+				child.failure = failure != null ? failure.getChild(c) : root;
+				child.output = child.failure.value != null ? child.failure : child.failure.output;
+				queue.add(child);
+			}
+		}
+
+		linksOutdated = false;
+	}
+
+
+	public interface MatchHandler<T> {
+
+		public void onMatch(int start, int end, T value);
+
+	}
+
+
+	private static class Node<T> {
+
+		private final int depth;
+
+		// Keywords usually share few characters at the same position, a small array is faster than a map.
+		private char[] childrenKeys;
+		private Node<T>[] children;
+		private int childrenSize;
+
+		private T value;
+		private Node<T> failure;
+
+		// The nearest node reachable through the failure links that ends a keyword.
+		private Node<T> output;
+
+		private Node(int depth) {
+			this.depth = depth;
+		}
+
+		private Node<T> getChild(char c) {
+			for (int i = 0; i < childrenSize; i++) {
+				if (childrenKeys[i] == c) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		private Node<T> getOrCreateChild(char c) {
+			Node<T> child = getChild(c);
+			if (child != null) {
+				return child;
+			}
+
+			if (children == null) {
+				childrenKeys = new char[2];
+				children = new Node[2];
+			} else if (childrenSize == children.length) {
+				childrenKeys = Arrays.copyOf(childrenKeys, childrenSize * 2);
+				children = Arrays.copyOf(children, childrenSize * 2);
+			}
+
+			child = new Node<>(depth + 1);
+			childrenKeys[childrenSize] = c;
+			children[childrenSize] = child;
+			childrenSize++;
+			return child;
+		}
+
+	}
+
+}
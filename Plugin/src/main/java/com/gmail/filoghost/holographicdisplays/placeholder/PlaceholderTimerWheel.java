@@ -0,0 +1,181 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.placeholder;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timer wheel measured in tenths of second, used to refresh the placeholders exactly when they are due.
+ * Scheduling and cancelling are O(1), and each advance only touches the timers expiring in that tenth of second
+ * (plus, once every 64 advances, the timers moved down from a higher level).
+ */
+public class PlaceholderTimerWheel {
+	
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	
+	// Four levels cover about 19 days, longer delays simply stay on the last level until they are closer.
+	private static final int LEVELS = 4;
+	
+	private final Timer[][] wheels;
+	private final Map<Placeholder, Timer> timers;
+	private long currentTime;
+	
+	public PlaceholderTimerWheel() {
+		wheels = new Timer[LEVELS][SLOTS];
+		timers = new IdentityHashMap<>();
+	}
+	
+	/**
+	 * Schedules the placeholder to expire after the given tenths of second, if not already scheduled.
+	 */
+	public void schedule(Placeholder placeholder, int delay) {
+		if (timers.containsKey(placeholder)) {
+			return;
+		}
+		
+		Timer timer = new Timer(placeholder, currentTime + Math.max(delay, 1));
+		timers.put(placeholder, timer);
+		insert(timer);
+	}
+	
+	public void cancel(Placeholder placeholder) {
+		Timer timer = timers.remove(placeholder);
+		if (timer != null) {
+			unlink(timer);
+		}
+	}
+	
+	public boolean isScheduled(Placeholder placeholder) {
+		return timers.containsKey(placeholder);
+	}
+	
+	public void clear() {
+		for (Timer[] wheel : wheels) {
+			for (int i = 0; i < wheel.length; i++) {
+				wheel[i] = null;
+			}
+		}
+		timers.clear();
+	}
+	
+	/**
+	 * Moves forward by a tenth of second. The expired placeholders are no longer scheduled when passed to the consumer.
+	 */
+	public void advance(Consumer<Placeholder> expiredConsumer) {
+		currentTime++;
+		
+		// Move the timers of the reached slots down to the lower levels, starting from the highest.
+		for (int level = LEVELS - 1; level > 0; level--) {
+			if ((currentTime & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+				cascade(level, (int) (currentTime >>> (SLOT_BITS * level)) & SLOT_MASK);
+			}
+		}
+		
+		int slot = (int) currentTime & SLOT_MASK;
+		Timer timer = wheels[0][slot];
+		if (timer == null) {
+			return;
+		}
+		
+		wheels[0][slot] = null;
+		
+		List<Placeholder> expired = new ArrayList<>();
+		while (timer != null) {
+			Timer next = timer.next;
+			timer.previous = null;
+			timer.next = null;
+			timers.remove(timer.placeholder);
+			expired.add(timer.placeholder);
+			timer = next;
+		}
+		
+		// Collected first, the consumer may schedule or cancel other placeholders.
+		for (Placeholder placeholder : expired) {
+			expiredConsumer.accept(placeholder);
+		}
+	}
+	
+	private void cascade(int level, int slot) {
+		Timer timer = wheels[level][slot];
+		wheels[level][slot] = null;
+		
+		while (timer != null) {
+			Timer next = timer.next;
+			timer.previous = null;
+			timer.next = null;
+			insert(timer);
+			timer = next;
+		}
+	}
+	
+	private void insert(Timer timer) {
+		// The lowest level whose current block (all the slots of that level) contains the expiration.
+		int level = 0;
+		while (level < LEVELS - 1 && (timer.expiration >>> (SLOT_BITS * (level + 1))) != (currentTime >>> (SLOT_BITS * (level + 1)))) {
+			level++;
+		}
+		
+		int slot = (int) (timer.expiration >>> (SLOT_BITS * level)) & SLOT_MASK;
+		timer.level = level;
+		timer.slot = slot;
+		
+		Timer head = wheels[level][slot];
+		timer.next = head;
+		if (head != null) {
+			head.previous = timer;
+		}
+		wheels[level][slot] = timer;
+	}
+	
+	private void unlink(Timer timer) {
+		if (timer.previous != null) {
+			timer.previous.next = timer.next;
+		} else {
+			wheels[timer.level][timer.slot] = timer.next;
+		}
+		
+		if (timer.next != null) {
+			timer.next.previous = timer.previous;
+		}
+		
+		timer.previous = null;
+		timer.next = null;
+	}
+	
+	
+	private static class Timer {
+		
+		private final Placeholder placeholder;
+		private final long expiration;
+		
+		private int level;
+		private int slot;
+		private Timer previous;
+		private Timer next;
+		
+		private Timer(Placeholder placeholder, long expiration) {
+			this.placeholder = placeholder;
+			this.expiration = expiration;
+		}
+		
+	}
+
+}
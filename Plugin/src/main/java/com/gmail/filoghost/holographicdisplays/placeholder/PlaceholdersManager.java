@@ -14,16 +14,17 @@
  */
 package com.gmail.filoghost.holographicdisplays.placeholder;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.logging.Level;
 
-import org.apache.commons.lang.StringUtils;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.Plugin;
 
@@ -32,74 +33,233 @@ import com.gmail.filoghost.holographicdisplays.api.placeholder.PlaceholderReplac
 import com.gmail.filoghost.holographicdisplays.bridge.bungeecord.BungeeServerTracker;
 import com.gmail.filoghost.holographicdisplays.disk.Configuration;
 import com.gmail.filoghost.holographicdisplays.nms.interfaces.entity.NMSNameable;
+import com.gmail.filoghost.holographicdisplays.object.VirtualHologramTracker;
 import com.gmail.filoghost.holographicdisplays.object.line.CraftTextLine;
 import com.gmail.filoghost.holographicdisplays.task.WorldPlayerCounterTask;
+import com.gmail.filoghost.holographicdisplays.util.ConsoleLogger;
 import com.gmail.filoghost.holographicdisplays.util.Utils;
 import me.clip.placeholderapi.PlaceholderAPI;
 
 public class PlaceholdersManager {
 	
-	private static long elapsedTenthsOfSecond;
-	protected static Set<DynamicLineData> linesToUpdate = new HashSet<>();
+	// Refreshes the placeholders in use when they are due, the others are not scheduled at all.
+	private static final PlaceholderTimerWheel refreshWheel = new PlaceholderTimerWheel();
+	
+	private static final Map<NMSNameable, DynamicLineData> trackedLines = new HashMap<>();
+	
+	// The lines with the same text share the data, so they are rendered only once.
+	private static final Map<String, DynamicLineData> linesByText = new HashMap<>();
+	
+	// The lines using each placeholder, only the placeholders in this map are refreshed.
+	private static final Map<Placeholder, Set<DynamicLineData>> linesByPlaceholder = new IdentityHashMap<>();
+	
+	// The placeholders with arguments and the PlaceholderAPI ones are shared by the lines with the same text placeholder, like {online:lobby} or %server_tps%.
+	private static final Map<String, Placeholder> sharedPlaceholders = new HashMap<>();
+	
+	private static final Set<DynamicLineData> linesToUpdate = new HashSet<>();
+	
+	// Reused to render the lines, always accessed from the main thread.
+	private static final StringBuilder renderBuffer = new StringBuilder();
 	
 	private static boolean usingPlaceholderAPI;
-	private static final Pattern BUNGEE_ONLINE_PATTERN = makePlaceholderWithArgsPattern("online");
-	private static final Pattern BUNGEE_MAX_PATTERN = makePlaceholderWithArgsPattern("max_players");
-	private static final Pattern BUNGEE_MOTD_PATTERN = makePlaceholderWithArgsPattern("motd");
-	private static final Pattern BUNGEE_MOTD_2_PATTERN = makePlaceholderWithArgsPattern("motd2");
-	private static final Pattern BUNGEE_STATUS_PATTERN = makePlaceholderWithArgsPattern("status");
-	private static final Pattern ANIMATION_PATTERN = makePlaceholderWithArgsPattern("animation");
-	private static final Pattern WORLD_PATTERN = makePlaceholderWithArgsPattern("world");
-	
-	private static Pattern makePlaceholderWithArgsPattern(String prefix) {
-		return Pattern.compile("(\\{" + Pattern.quote(prefix) + ":)(.+?)(\\})");
-	}
 	
-	private static String extractArgumentFromPlaceholder(Matcher matcher) {
-		return matcher.group(2).trim();
+	// Finds the registered placeholders, the placeholders with arguments and the PlaceholderAPI delimiters in a single scan.
+	private static PlaceholderAutomaton<Object> automaton;
+	
+	private enum ArgumentPlaceholder {
+		
+		WORLD("world"),
+		BUNGEE_ONLINE("online"),
+		BUNGEE_MAX_PLAYERS("max_players"),
+		BUNGEE_MOTD("motd"),
+		BUNGEE_MOTD_2("motd2"),
+		BUNGEE_STATUS("status"),
+		ANIMATION("animation");
+		
+		private final String prefix;
+		
+		private ArgumentPlaceholder(String name) {
+			this.prefix = "{" + name + ":";
+		}
+		
 	}
 	
+	private static final Object PLACEHOLDER_API_DELIMITER = new Object();
+	
 	
 	public static void load(Plugin plugin) {
 		usingPlaceholderAPI = HolographicDisplays.hasPlaceholderAPI() && Configuration.usePlaceholderAPI;
 		Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, () -> {
 			
-			Iterator<DynamicLineData> iter = linesToUpdate.iterator();
-			DynamicLineData currentLineData;
-			
-			while (iter.hasNext()) {
-				currentLineData = iter.next();
+			refreshWheel.advance(placeholder -> {
+				Set<DynamicLineData> lines = linesByPlaceholder.get(placeholder);
+				if (lines == null) {
+					return; // No longer used.
+				}
 				
-				if (currentLineData.getEntity().isDeadNMS()) {
-					iter.remove();
-				} else {
-					updatePlaceholders(currentLineData);
+				if (refresh(placeholder)) {
+					linesToUpdate.addAll(lines);
 				}
+				refreshWheel.schedule(placeholder, placeholder.getTenthsToRefresh());
+			});
+			
+			for (DynamicLineData lineData : linesToUpdate) {
+				updatePlaceholders(lineData);
 			}
 			
-			elapsedTenthsOfSecond++;
+			linesToUpdate.clear();
 			
 		}, 2L, 2L);
 	}
 	
 	
+	public static boolean isUsingPlaceholderAPI() {
+		return usingPlaceholderAPI;
+	}
+	
+	
 	public static void untrackAll() {
-		linesToUpdate.clear();
+		trackedLines.clear();
+		linesByText.clear();
+		linesByPlaceholder.clear();
+		refreshWheel.clear();
+		sharedPlaceholders.clear();
 	}
 	
 	public static void untrack(CraftTextLine line) {
-		if (line == null || !line.isSpawned()) {
+		if (line == null || line.getNmsNameable() == null) {
 			return;
 		}
 		
-		Iterator<DynamicLineData> iter = linesToUpdate.iterator();
-		while (iter.hasNext()) {
-			DynamicLineData data = iter.next();
-			if (data.getEntity() == line.getNmsNameable()) {
-				iter.remove();
-				data.getEntity().setCustomNameNMS(data.getOriginalName());
+		DynamicLineData data = trackedLines.get(line.getNmsNameable());
+		if (data != null) {
+			untrack(line.getNmsNameable(), data);
+			line.getNmsNameable().setCustomNameNMS(data.getOriginalName());
+			VirtualHologramTracker.onLineNameChange(line);
+		}
+	}
+	
+	private static void untrack(NMSNameable entity, DynamicLineData lineData) {
+		trackedLines.remove(entity, lineData);
+		lineData.getEntities().remove(entity);
+		
+		if (lineData.getEntities().isEmpty()) {
+			release(lineData);
+		}
+	}
+	
+	/**
+	 * Stops refreshing the placeholders of a text that is no longer displayed.
+	 */
+	private static void release(DynamicLineData lineData) {
+		linesByText.remove(lineData.getText(), lineData);
+		
+		for (Placeholder placeholder : lineData.getPlaceholders()) {
+			Set<DynamicLineData> lines = linesByPlaceholder.get(placeholder);
+			if (lines == null) {
+				continue;
+			}
+			
+			lines.remove(lineData);
+			if (lines.isEmpty()) {
+				linesByPlaceholder.remove(placeholder);
+				refreshWheel.cancel(placeholder);
+				sharedPlaceholders.remove(placeholder.getTextPlaceholder(), placeholder);
+			}
+		}
+	}
+	
+	private static void track(NMSNameable entity, DynamicLineData lineData) {
+		DynamicLineData previous = trackedLines.put(entity, lineData);
+		
+		// It could be already tracked!
+		if (previous != null && previous != lineData) {
+			untrack(entity, previous);
+		}
+		
+		lineData.getEntities().add(entity);
+		
+		if (!lineData.getRenderedName().equals(entity.getCustomNameStringNMS())) {
+			entity.setCustomNameNMS(lineData.getRenderedName(), lineData.getRenderedNameObject());
+			VirtualHologramTracker.onLineNameChange(entity.getHologramLine());
+		}
+	}
+	
+	private static void trackPlaceholders(DynamicLineData lineData) {
+		for (Placeholder placeholder : lineData.getPlaceholders()) {
+			trackPlaceholder(lineData, placeholder);
+		}
+	}
+	
+	private static void trackPlaceholder(DynamicLineData lineData, Placeholder placeholder) {
+		Set<DynamicLineData> lines = linesByPlaceholder.get(placeholder);
+		
+		if (lines == null) {
+			// First line using it, the current value could be very old.
+			lines = new HashSet<>();
+			linesByPlaceholder.put(placeholder, lines);
+			refresh(placeholder);
+			refreshWheel.schedule(placeholder, placeholder.getTenthsToRefresh());
+		}
+		
+		lines.add(lineData);
+	}
+	
+	/**
+	 * Updates the placeholder, returns true if the replacement changed.
+	 */
+	private static boolean refresh(Placeholder placeholder) {
+		int version = placeholder.getVersion();
+		
+		try {
+			placeholder.update();
+		} catch (Throwable t) {
+			ConsoleLogger.log(Level.WARNING, "The placeholder " + placeholder.getTextPlaceholder() + " registered by the plugin " + placeholder.getOwner().getName() + " generated an exception while updating. Please contact the author of " + placeholder.getOwner().getName(), t);
+		}
+		
+		return placeholder.getVersion() != version;
+	}
+	
+	protected static void onRegister(Placeholder placeholder) {
+		if (automaton != null) {
+			automaton.put(placeholder.getTextPlaceholder(), placeholder);
+		}
+		
+		// The texts must be scanned again to find the new placeholder, the lines already tracked keep the old data.
+		linesByText.clear();
+	}
+	
+	protected static void onUnregister(Placeholder placeholder) {
+		if (automaton != null) {
+			automaton.remove(placeholder.getTextPlaceholder());
+		}
+		
+		Set<DynamicLineData> lines = linesByPlaceholder.remove(placeholder);
+		refreshWheel.cancel(placeholder);
+		if (lines != null) {
+			for (DynamicLineData lineData : lines) {
+				lineData.removePlaceholder(placeholder);
+				updatePlaceholders(lineData);
+			}
+		}
+	}
+	
+	private static PlaceholderAutomaton<Object> getAutomaton() {
+		if (automaton == null) {
+			automaton = new PlaceholderAutomaton<>();
+			
+			automaton.put("%", PLACEHOLDER_API_DELIMITER);
+			for (ArgumentPlaceholder argumentPlaceholder : ArgumentPlaceholder.values()) {
+				automaton.put(argumentPlaceholder.prefix, argumentPlaceholder);
+			}
+			
+			// Registered last, they take precedence in case of conflicts.
+			for (Placeholder placeholder : PlaceholdersRegister.getPlaceholders()) {
+				automaton.put(placeholder.getTextPlaceholder(), placeholder);
 			}
 		}
+		
+		return automaton;
 	}
 	
 	public static void trackIfNecessary(CraftTextLine line) {
@@ -113,263 +273,409 @@ public class PlaceholdersManager {
 			return;
 		}
 		
-		boolean updateName = false;
-
-		// Lazy initialization.
-		Set<Placeholder> normalPlaceholders = null;
-		Map<String, PlaceholderReplacer> bungeeReplacers = null;
-		Map<String, PlaceholderReplacer> worldsOnlinePlayersReplacers = null;
-		Map<String, Placeholder> animationsPlaceholders = null;
-		boolean hasPapiPlaceholders = false;
+		DynamicLineData sharedLineData = linesByText.get(name);
+		if (sharedLineData != null) {
+			track(nameableEntity, sharedLineData);
+			return;
+		}
 		
-		Matcher matcher;
+		String text = name;
+		LineScanner scanner = new LineScanner(name);
+		getAutomaton().scan(name, scanner);
 		
-		for (Placeholder placeholder : PlaceholdersRegister.getPlaceholders()) {
-			
-			if (name.contains(placeholder.getTextPlaceholder())) {
-				
-				if (normalPlaceholders == null) {
-					normalPlaceholders = new HashSet<>();
-				}
-				
-				normalPlaceholders.add(placeholder);
+		if (scanner.matches == null) {
+			DynamicLineData previous = trackedLines.get(nameableEntity);
+			if (previous != null) {
+				untrack(nameableEntity, previous);
 			}
+			return;
 		}
 		
+		boolean updateName = false;
+		List<Placeholder> slotPlaceholders = new ArrayList<>();
 		
-		// Players in a world count pattern.
-		matcher = WORLD_PATTERN.matcher(name);
-		while (matcher.find()) {
-							
-			if (worldsOnlinePlayersReplacers == null) {
-				worldsOnlinePlayersReplacers = new HashMap<>();
-			}
-							
-			final String worldsNames = extractArgumentFromPlaceholder(matcher);
+		LineTemplate.Builder templateBuilder = new LineTemplate.Builder();
+		int literalStart = 0;
+		
+		for (PlaceholderMatch match : scanner.getNonOverlappingMatches()) {
+			templateBuilder.appendLiteral(name.substring(literalStart, match.start));
+			literalStart = match.end;
+			
+			String textPlaceholder = name.substring(match.start, match.end);
+			Placeholder placeholder;
 			
-			if (worldsNames.contains(",")) {
+			if (match.value instanceof Placeholder) {
+				placeholder = (Placeholder) match.value;
 				
-				String[] split = worldsNames.split(",");
-				for (int i = 0; i < split.length; i++) {
-					split[i] = split[i].trim();
-				}
+			} else if (match.value == PLACEHOLDER_API_DELIMITER) {
+				placeholder = getPlaceholderAPIPlaceholder(textPlaceholder);
 				
-				final String[] worldsToTrack = split;
-			
-				// Add it to tracked worlds.
-				worldsOnlinePlayersReplacers.put(matcher.group(), () -> {
-					return WorldPlayerCounterTask.getCount(worldsToTrack);
-				});
 			} else {
-				// Normal, single tracked world.
-				worldsOnlinePlayersReplacers.put(matcher.group(), () -> {
-					return WorldPlayerCounterTask.getCount(worldsNames);
-				});
+				ArgumentPlaceholder argumentPlaceholder = (ArgumentPlaceholder) match.value;
+				String argument = textPlaceholder.substring(argumentPlaceholder.prefix.length(), textPlaceholder.length() - 1).trim();
+				
+				if (argumentPlaceholder == ArgumentPlaceholder.ANIMATION) {
+					placeholder = AnimationsRegister.getAnimation(argument);
+					
+					if (placeholder == null) {
+						templateBuilder.appendLiteral("[Animation not found: " + argument + "]");
+						updateName = true;
+						continue;
+					}
+					
+				} else {
+					if (argumentPlaceholder != ArgumentPlaceholder.WORLD) {
+						BungeeServerTracker.track(argument); // Track this server.
+					}
+					
+					placeholder = sharedPlaceholders.get(textPlaceholder);
+					if (placeholder == null) {
+						placeholder = new Placeholder(HolographicDisplays.getInstance(), textPlaceholder, 0.1, createArgumentReplacer(argumentPlaceholder, argument));
+						sharedPlaceholders.put(textPlaceholder, placeholder);
+					}
+				}
 			}
+			
+			slotPlaceholders.add(placeholder);
+			templateBuilder.appendSlot(textPlaceholder);
 		}
 		
-		// BungeeCord online pattern.
-		matcher = BUNGEE_ONLINE_PATTERN.matcher(name);
-		while (matcher.find()) {
+		templateBuilder.appendLiteral(name.substring(literalStart));
+		name = templateBuilder.getText();
+		
+		if (!slotPlaceholders.isEmpty()) {
 			
-			if (bungeeReplacers == null) {
-				bungeeReplacers = new HashMap<>();
-			}
+			DynamicLineData lineData = new DynamicLineData(text, name);
+			lineData.setTemplate(templateBuilder.build(), slotPlaceholders.toArray(new Placeholder[slotPlaceholders.size()]));
 			
-			final String serverName = extractArgumentFromPlaceholder(matcher);
-			BungeeServerTracker.track(serverName); // Track this server.
+			trackPlaceholders(lineData);
+			updatePlaceholders(lineData);
+			linesByText.put(text, lineData);
+			track(nameableEntity, lineData);
 			
-			if (serverName.contains(",")) {
-				
-				String[] split = serverName.split(",");
-				for (int i = 0; i < split.length; i++) {
-					split[i] = split[i].trim();
+		} else {
+			
+			DynamicLineData previous = trackedLines.get(nameableEntity);
+			if (previous != null) {
+				untrack(nameableEntity, previous);
+			}
+			
+			// The name needs to be updated anyways.
+			if (updateName) {
+				nameableEntity.setCustomNameNMS(name);
+				VirtualHologramTracker.onLineNameChange(nameableEntity.getHologramLine());
+			}
+		}
+	}
+	
+	private static Placeholder getPlaceholderAPIPlaceholder(String textPlaceholder) {
+		Placeholder placeholder = sharedPlaceholders.get(textPlaceholder);
+		if (placeholder == null) {
+			placeholder = createPlaceholderAPIPlaceholder(textPlaceholder);
+			sharedPlaceholders.put(textPlaceholder, placeholder);
+		}
+		return placeholder;
+	}
+	
+	private static Placeholder createPlaceholderAPIPlaceholder(final String textPlaceholder) {
+		// Without the delimiters.
+		String identifier = textPlaceholder.substring(1, textPlaceholder.length() - 1).toLowerCase();
+		String expansion = identifier.substring(0, identifier.indexOf('_'));
+		
+		Double refreshSeconds = Configuration.placeholderAPIRefreshOverrides.get(identifier);
+		if (refreshSeconds == null) {
+			refreshSeconds = Configuration.placeholderAPIRefreshOverrides.get(expansion);
+		}
+		if (refreshSeconds == null) {
+			refreshSeconds = Configuration.placeholderAPIRefreshSeconds;
+		}
+		
+		return new Placeholder(HolographicDisplays.getInstance(), textPlaceholder, refreshSeconds, () -> {
+			return PlaceholderAPI.setPlaceholders(null, textPlaceholder);
+		});
+	}
+	
+	private static PlaceholderReplacer createArgumentReplacer(ArgumentPlaceholder argumentPlaceholder, final String argument) {
+		switch (argumentPlaceholder) {
+			
+			case WORLD:
+				// Players in a world count.
+				if (argument.contains(",")) {
+					
+					String[] split = argument.split(",");
+					for (int i = 0; i < split.length; i++) {
+						split[i] = split[i].trim();
+					}
+					
+					final String[] worldsToTrack = split;
+					
+					return () -> {
+						return WorldPlayerCounterTask.getCount(worldsToTrack);
+					};
+				} else {
+					// Normal, single tracked world.
+					return () -> {
+						return WorldPlayerCounterTask.getCount(argument);
+					};
 				}
-				
-				final String[] serversToTrack = split;
 			
-				// Add it to tracked servers.
-				bungeeReplacers.put(matcher.group(), () -> {
-					int count = 0;
-					for (String serverToTrack : serversToTrack) {
-						count += BungeeServerTracker.getPlayersOnline(serverToTrack);
+			case BUNGEE_ONLINE:
+				if (argument.contains(",")) {
+					
+					String[] split = argument.split(",");
+					for (int i = 0; i < split.length; i++) {
+						split[i] = split[i].trim();
 					}
-					return String.valueOf(count);
-				});
-			} else {
-				// Normal, single tracked server.
-				bungeeReplacers.put(matcher.group(), () -> {
-					return String.valueOf(BungeeServerTracker.getPlayersOnline(serverName));
-				});
-			}
+					
+					final String[] serversToTrack = split;
+					
+					return () -> {
+						int count = 0;
+						for (String serverToTrack : serversToTrack) {
+							count += BungeeServerTracker.getPlayersOnline(serverToTrack);
+						}
+						return String.valueOf(count);
+					};
+				} else {
+					// Normal, single tracked server.
+					return () -> {
+						return String.valueOf(BungeeServerTracker.getPlayersOnline(argument));
+					};
+				}
+				
+			case BUNGEE_MAX_PLAYERS:
+				return () -> {
+					return BungeeServerTracker.getMaxPlayers(argument);
+				};
+				
+			case BUNGEE_MOTD:
+				return () -> {
+					return BungeeServerTracker.getMotd1(argument);
+				};
+				
+			case BUNGEE_MOTD_2:
+				return () -> {
+					return BungeeServerTracker.getMotd2(argument);
+				};
+				
+			case BUNGEE_STATUS:
+				return () -> {
+					return BungeeServerTracker.getOnlineStatus(argument);
+				};
+				
+			default:
+				throw new IllegalArgumentException("Not a placeholder with a replacer: " + argumentPlaceholder);
+		}
+	}
+	
+	
+	private static void updatePlaceholders(DynamicLineData lineData) {
+		if (!lineData.updateSlotValues() && lineData.getRenderedName() != null) {
+			// No slot has changed since the last render.
+			return;
 		}
 		
-		// BungeeCord max players pattern.
-		matcher = BUNGEE_MAX_PATTERN.matcher(name);
-		while (matcher.find()) {
+		int frame = lineData.getCurrentFrame();
+		boolean frameAlreadyCreated = frame >= 0 && lineData.getFrameName(frame) != null;
+		
+		String newCustomName;
+		Object newCustomNameObject;
+		
+		if (frameAlreadyCreated) {
+			newCustomName = lineData.getFrameName(frame);
+			newCustomNameObject = lineData.getFrameNameObject(frame);
+		} else {
+			newCustomName = lineData.getTemplate().render(renderBuffer, lineData.getSlotValues());
+			newCustomNameObject = null;
 			
-			if (bungeeReplacers == null) {
-				bungeeReplacers = new HashMap<>();
+			String replacedName = replaceNestedPlaceholderAPI(lineData, newCustomName);
+			if (replacedName != null) {
+				newCustomName = replacedName;
+				frame = -1; // Not cached, the frame changes with the PlaceholderAPI values.
 			}
-			
-			final String serverName = extractArgumentFromPlaceholder(matcher);
-			BungeeServerTracker.track(serverName); // Track this server.
-			
-			// Add it to tracked servers.
-			bungeeReplacers.put(matcher.group(), () -> {
-				return BungeeServerTracker.getMaxPlayers(serverName);
-			});
 		}
 		
-		// BungeeCord motd pattern.
-		matcher = BUNGEE_MOTD_PATTERN.matcher(name);
-		while (matcher.find()) {
-			
-			if (bungeeReplacers == null) {
-				bungeeReplacers = new HashMap<>();
+		if (newCustomName.equals(lineData.getRenderedName())) {
+			return;
+		}
+		
+		if (!frameAlreadyCreated) {
+			newCustomNameObject = HolographicDisplays.getNMSManager().createCustomNameObject(newCustomName);
+			if (frame >= 0) {
+				lineData.setFrameName(frame, newCustomName, newCustomNameObject);
 			}
-			
-			final String serverName = extractArgumentFromPlaceholder(matcher);
-			BungeeServerTracker.track(serverName); // Track this server.
-			
-			// Add it to tracked servers.
-			bungeeReplacers.put(matcher.group(), () -> {
-				return BungeeServerTracker.getMotd1(serverName);
-			});
 		}
 		
-		// BungeeCord motd (line 2) pattern.
-		matcher = BUNGEE_MOTD_2_PATTERN.matcher(name);
-		while (matcher.find()) {
-			
-			if (bungeeReplacers == null) {
-				bungeeReplacers = new HashMap<>();
+		lineData.setRenderedName(newCustomName, newCustomNameObject);
+		
+		boolean removedDeadEntities = false;
+		Iterator<NMSNameable> iterator = lineData.getEntities().iterator();
+		while (iterator.hasNext()) {
+			NMSNameable entity = iterator.next();
+			
+			if (entity.isDeadNMS()) {
+				iterator.remove();
+				trackedLines.remove(entity, lineData);
+				removedDeadEntities = true;
+				continue;
 			}
 			
-			final String serverName = extractArgumentFromPlaceholder(matcher);
-			BungeeServerTracker.track(serverName); // Track this server.
-			
-			// Add it to tracked servers.
-			bungeeReplacers.put(matcher.group(), () -> {
-				return BungeeServerTracker.getMotd2(serverName);
-			});
+			// Update only if needed, don't send useless packets.
+			if (!newCustomName.equals(entity.getCustomNameStringNMS())) {
+				entity.setCustomNameNMS(newCustomName, newCustomNameObject);
+				VirtualHologramTracker.onLineNameChange(entity.getHologramLine());
+			}
 		}
 		
-		// BungeeCord status pattern.
-		matcher = BUNGEE_STATUS_PATTERN.matcher(name);
-		while (matcher.find()) {
+		if (removedDeadEntities && lineData.getEntities().isEmpty()) {
+			release(lineData);
+		}
+	}
+	
+	/**
+	 * Replaces the PlaceholderAPI identifiers returned by the other placeholders, like the ones in the frames of an animation.
+	 * They use the same cached placeholders of the identifiers written in the lines.
+	 * @return the name with the identifiers replaced, or null if there are none
+	 */
+	private static String replaceNestedPlaceholderAPI(DynamicLineData lineData, String renderedName) {
+		if (!usingPlaceholderAPI || !lineData.slotValuesContain('%')) {
+			return null;
+		}
+		
+		LineScanner scanner = new LineScanner(renderedName);
+		for (int i = renderedName.indexOf('%'); i >= 0; i = renderedName.indexOf('%', i + 1)) {
+			scanner.onMatch(i, i + 1, PLACEHOLDER_API_DELIMITER);
+		}
+		
+		if (scanner.matches == null) {
+			return null;
+		}
+		
+		renderBuffer.setLength(0);
+		int literalStart = 0;
+		
+		for (PlaceholderMatch match : scanner.getNonOverlappingMatches()) {
+			renderBuffer.append(renderedName, literalStart, match.start);
+			literalStart = match.end;
 			
-			if (bungeeReplacers == null) {
-				bungeeReplacers = new HashMap<>();
+			Placeholder placeholder = getPlaceholderAPIPlaceholder(renderedName.substring(match.start, match.end));
+			if (!lineData.hasNestedPlaceholder(placeholder)) {
+				trackPlaceholder(lineData, placeholder);
 			}
 			
-			final String serverName = extractArgumentFromPlaceholder(matcher);
-			BungeeServerTracker.track(serverName); // Track this server.
-			
-			// Add it to tracked servers.
-			bungeeReplacers.put(matcher.group(), () -> {
-				return BungeeServerTracker.getOnlineStatus(serverName);
-			});
+			lineData.setNestedPlaceholderVersion(placeholder, placeholder.getVersion());
+			renderBuffer.append(Utils.sanitize(placeholder.getCurrentReplacement()));
 		}
 		
-		
-		// Animation pattern.
-		matcher = ANIMATION_PATTERN.matcher(name);
-		while (matcher.find()) {
+		renderBuffer.append(renderedName, literalStart, renderedName.length());
+		return renderBuffer.toString();
+	}
 
-			String fileName = extractArgumentFromPlaceholder(matcher);
-			Placeholder animation = AnimationsRegister.getAnimation(fileName);
-			
-			// If exists...
-			if (animation != null) {
+	
+	private static class PlaceholderMatch {
+		
+		private final int start;
+		private final int end;
+		private final Object value;
+		
+		private PlaceholderMatch(int start, int end, Object value) {
+			this.start = start;
+			this.end = end;
+			this.value = value;
+		}
+		
+	}
+	
+	
+	private static class LineScanner implements PlaceholderAutomaton.MatchHandler<Object> {
+		
+		private final String text;
+		
+		private List<PlaceholderMatch> matches;
+		private int openPapiDelimiter = -1;
+		
+		private LineScanner(String text) {
+			this.text = text;
+		}
+		
+		@Override
+		public void onMatch(int start, int end, Object value) {
+			if (value == PLACEHOLDER_API_DELIMITER) {
+				if (!usingPlaceholderAPI) {
+					return;
+				}
 				
-				if (animationsPlaceholders == null) {
-					animationsPlaceholders = new HashMap<>();
+				// Same as the pattern used by PlaceholderAPI: two delimiters with something in between, not reused for the next placeholder.
+				if (openPapiDelimiter < 0 || start == openPapiDelimiter + 1) {
+					openPapiDelimiter = start;
+					return;
 				}
 				
-				animationsPlaceholders.put(matcher.group(), animation);
+				int papiStart = openPapiDelimiter;
+				openPapiDelimiter = -1;
 				
-			} else {
-				name = name.replace(matcher.group(), "[Animation not found: " + fileName + "]");
-				updateName = true;
+				// PlaceholderAPI ignores the identifiers without the expansion name, before the underscore.
+				int underscore = text.indexOf('_', papiStart + 1);
+				if (underscore <= papiStart + 1 || underscore >= start) {
+					return;
+				}
+				
+				// Replaced for each player when the packets are sent.
+				if (Configuration.placeholderAPIRelativeExpansions.contains(text.substring(papiStart + 1, underscore).toLowerCase())) {
+					return;
+				}
+				start = papiStart;
+				
+			} else if (value instanceof ArgumentPlaceholder) {
+				// The argument cannot be empty, it ends with the first closing bracket after it.
+				int closingBracket = text.indexOf('}', end + 1);
+				if (closingBracket < 0) {
+					return;
+				}
+				end = closingBracket + 1;
 			}
-		}
-		
-		if (usingPlaceholderAPI) {
-			matcher = PlaceholderAPI.getPlaceholderPattern().matcher(name);
-			if (matcher.find()) {
-				hasPapiPlaceholders = true;
+			
+			if (matches == null) {
+				matches = new ArrayList<>();
 			}
+			matches.add(new PlaceholderMatch(start, end, value));
 		}
 		
-		if (hasPapiPlaceholders || Utils.isThereNonNull(normalPlaceholders, bungeeReplacers, worldsOnlinePlayersReplacers, animationsPlaceholders)) {
-			
-			DynamicLineData lineData = new DynamicLineData(nameableEntity, name);
-			
-			if (normalPlaceholders != null) {
-				lineData.setPlaceholders(normalPlaceholders);
+		/**
+		 * The matches from left to right. When more matches overlap, the leftmost one is used, and then the longest.
+		 */
+		private List<PlaceholderMatch> getNonOverlappingMatches() {
+			if (matches == null) {
+				return Collections.emptyList();
 			}
 			
-			if (bungeeReplacers != null) {
-				lineData.getReplacers().putAll(bungeeReplacers);
-			}
+			matches.sort(LineScanner::compareMatches);
 			
-			if (worldsOnlinePlayersReplacers != null) {
-				lineData.getReplacers().putAll(worldsOnlinePlayersReplacers);
-			}
-			
-			if (animationsPlaceholders != null) {
-				lineData.getAnimations().putAll(animationsPlaceholders);
-			}
+			List<PlaceholderMatch> nonOverlapping = new ArrayList<>(matches.size());
+			int lastEnd = 0;
 			
-			// It could be already tracked!
-			if (!linesToUpdate.add(lineData)) {
-				linesToUpdate.remove(lineData);
-				linesToUpdate.add(lineData);
+			for (PlaceholderMatch match : matches) {
+				if (match.start >= lastEnd) {
+					nonOverlapping.add(match);
+					lastEnd = match.end;
+				}
 			}
 			
-			updatePlaceholders(lineData);
-			
-		} else {
-			
-			// The name needs to be updated anyways.
-			if (updateName) {
-				nameableEntity.setCustomNameNMS(name);
-			}
+			return nonOverlapping;
 		}
-	}
-	
-	
-	private static void updatePlaceholders(DynamicLineData lineData) {
-		String oldCustomName = lineData.getEntity().getCustomNameStringNMS();
-		String newCustomName = lineData.getOriginalName();
 		
-		if (!lineData.getPlaceholders().isEmpty()) {
-			for (Placeholder placeholder : lineData.getPlaceholders()) {
-				newCustomName = StringUtils.replace(newCustomName, placeholder.getTextPlaceholder(), Utils.sanitize(placeholder.getCurrentReplacement()));
+		private static int compareMatches(PlaceholderMatch first, PlaceholderMatch second) {
+			if (first.start != second.start) {
+				return Integer.compare(first.start, second.start);
 			}
-		}
-		
-		if (!lineData.getReplacers().isEmpty()) {
-			for (Entry<String, PlaceholderReplacer> entry : lineData.getReplacers().entrySet()) {
-				newCustomName = StringUtils.replace(newCustomName, entry.getKey(), Utils.sanitize(entry.getValue().update()));
-			}
-		}
-		
-		if (!lineData.getAnimations().isEmpty()) {
-			for (Entry<String, Placeholder> entry : lineData.getAnimations().entrySet()) {
-				newCustomName = StringUtils.replace(newCustomName, entry.getKey(), Utils.sanitize(entry.getValue().getCurrentReplacement()));
+			if (first.end != second.end) {
+				return Integer.compare(second.end, first.end);
 			}
+			
+			// Registered placeholders have the priority over the placeholders with arguments.
+			return Boolean.compare(second.value instanceof Placeholder, first.value instanceof Placeholder);
 		}
 		
-		if (usingPlaceholderAPI) {
-			newCustomName = PlaceholderAPI.setPlaceholders(null, newCustomName);
-		}
-		
-		// Update only if needed, don't send useless packets.
-		if (!oldCustomName.equals(newCustomName)) {
-			lineData.getEntity().setCustomNameNMS(newCustomName);
-		}
 	}
-
+	
 }
@@ -67,6 +67,7 @@ public class PlaceholdersRegister {
 		}
 		
 		placeholders.add(placeholder);
+		PlaceholdersManager.onRegister(placeholder);
 		return true;
 	}
 	
@@ -92,11 +93,7 @@ public class PlaceholdersRegister {
 			if (placeholder.getOwner().equals(plugin) && placeholder.getTextPlaceholder().equals(textPlaceholder)) {
 				iter.remove();
 			
-				for (DynamicLineData data : PlaceholdersManager.linesToUpdate) {
-					if (data.getPlaceholders().contains(placeholder)) {
-						data.getPlaceholders().remove(placeholder);
-					}
-				}
+				PlaceholdersManager.onUnregister(placeholder);
 				
 				return true;
 			}
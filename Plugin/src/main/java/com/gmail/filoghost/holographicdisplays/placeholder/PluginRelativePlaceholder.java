@@ -0,0 +1,110 @@
+/*
+ *  This program is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *  
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *  
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program. If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.gmail.filoghost.holographicdisplays.placeholder;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import com.gmail.filoghost.holographicdisplays.api.placeholder.RelativePlaceholderReplacer;
+import com.gmail.filoghost.holographicdisplays.util.ConsoleLogger;
+
+/**
+ * A relative placeholder registered through the API. The replacement for each player is cached until it needs a refresh,
+ * so most of the packets sent only need a lookup.
+ */
+public class PluginRelativePlaceholder extends RelativePlaceholder {
+	
+	private final Plugin owner;
+	private final long refreshNanos;
+	private final RelativePlaceholderReplacer replacer;
+	
+	private final Map<UUID, CachedReplacement> cachedReplacements;
+	private volatile boolean unregistered;
+	
+	public PluginRelativePlaceholder(Plugin owner, String textPlaceholder, double refreshRate, RelativePlaceholderReplacer replacer) {
+		super(textPlaceholder);
+		this.owner = owner;
+		this.refreshNanos = (refreshRate <= 0.1 ? 1 : (long) (refreshRate * 10.0)) * 100000000L;
+		this.replacer = replacer;
+		this.cachedReplacements = new ConcurrentHashMap<>();
+	}
+	
+	public Plugin getOwner() {
+		return owner;
+	}
+	
+	@Override
+	public long getRefreshNanos() {
+		return refreshNanos;
+	}
+
+	@Override
+	public String getReplacement(Player player) {
+		if (unregistered) {
+			// Lines created before the unregistration still reference it.
+			return getTextPlaceholder();
+		}
+		
+		long now = System.nanoTime();
+		CachedReplacement cached = cachedReplacements.get(player.getUniqueId());
+		
+		if (cached != null && now - cached.nextRefresh < 0) {
+			return cached.replacement;
+		}
+		
+		String replacement;
+		try {
+			replacement = replacer.update(player);
+		} catch (Throwable t) {
+			ConsoleLogger.log(Level.WARNING, "The relative placeholder " + getTextPlaceholder() + " registered by the plugin " + owner.getName() + " generated an exception while updating. Please contact the author of " + owner.getName(), t);
+			replacement = cached != null ? cached.replacement : getTextPlaceholder();
+		}
+		
+		if (replacement == null) {
+			replacement = "null";
+		}
+		
+		cachedReplacements.put(player.getUniqueId(), new CachedReplacement(replacement, now + refreshNanos));
+		return replacement;
+	}
+	
+	public void clearCachedReplacement(Player player) {
+		cachedReplacements.remove(player.getUniqueId());
+	}
+	
+	protected void setUnregistered() {
+		unregistered = true;
+		cachedReplacements.clear();
+	}
+	
+	
+	private static class CachedReplacement {
+		
+		private final String replacement;
+		private final long nextRefresh;
+		
+		private CachedReplacement(String replacement, long nextRefresh) {
+			this.replacement = replacement;
+			this.nextRefresh = nextRefresh;
+		}
+		
+	}
+
+}
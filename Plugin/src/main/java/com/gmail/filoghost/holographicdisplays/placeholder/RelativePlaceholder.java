@@ -16,8 +16,11 @@ package com.gmail.filoghost.holographicdisplays.placeholder;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
 
 public abstract class RelativePlaceholder {
 	
@@ -36,14 +39,57 @@ public abstract class RelativePlaceholder {
 	
 	public abstract String getReplacement(Player player);
 	
-	public static void register(RelativePlaceholder relativePlaceholder) {
+	/**
+	 * How long a replacement can be reused for the same player, zero if it should be computed every time.
+	 */
+	public long getRefreshNanos() {
+		return 0;
+	}
+	
+	/**
+	 * If the replacement can be computed outside of the main thread, where the packets are often sent from.
+	 */
+	public boolean isThreadSafe() {
+		return true;
+	}
+	
+	public static boolean register(RelativePlaceholder relativePlaceholder) {
 		for (RelativePlaceholder existingPlaceholder : registry) {
 			if (existingPlaceholder.getTextPlaceholder().equals(relativePlaceholder.getTextPlaceholder())) {
-				throw new IllegalArgumentException("Relative placeholder already registered.");
+				return false;
 			}
 		}
 		
 		registry.add(relativePlaceholder);
+		return true;
+	}
+	
+	public static boolean unregister(Plugin plugin, String textPlaceholder) {
+		Iterator<RelativePlaceholder> iter = registry.iterator();
+		
+		while (iter.hasNext()) {
+			RelativePlaceholder relativePlaceholder = iter.next();
+			
+			if (relativePlaceholder instanceof PluginRelativePlaceholder && relativePlaceholder.getTextPlaceholder().equals(textPlaceholder)) {
+				PluginRelativePlaceholder pluginRelativePlaceholder = (PluginRelativePlaceholder) relativePlaceholder;
+				
+				if (pluginRelativePlaceholder.getOwner().equals(plugin)) {
+					iter.remove();
+					pluginRelativePlaceholder.setUnregistered();
+					return true;
+				}
+			}
+		}
+		
+		return false;
+	}
+	
+	public static void clearCachedReplacements(Player player) {
+		for (RelativePlaceholder relativePlaceholder : registry) {
+			if (relativePlaceholder instanceof PluginRelativePlaceholder) {
+				((PluginRelativePlaceholder) relativePlaceholder).clearCachedReplacement(player);
+			}
+		}
 	}
 	
 	public static Collection<RelativePlaceholder> getRegistry() {
@@ -57,6 +103,11 @@ public abstract class RelativePlaceholder {
 			public String getReplacement(Player player) {
 				return player.getName();
 			}
+			
+			@Override
+			public long getRefreshNanos() {
+				return TimeUnit.HOURS.toNanos(1); // Never changes while online.
+			}
 		});
 		
 		register(new RelativePlaceholder("{displayname}") {